@@ -1,4 +1,30 @@
 #!/bin/bash
+#
+# Runs the end-to-end suite (EventBenchmark) with 1 to N producers, with the GC profiler,
+# and writes one JSON file per producer count in results/<date>/, to compare two versions.
+#
+# Build first: mvn install (in the root and in processor/), then mvn package here.
+#
+#   ./benchmark.sh                                   # all dispatchers, 1 2 4 and <cores> producers
+#   PRODUCERS="1 8" ./benchmark.sh -p dispatcher=ring-buffer,single-thread -p handlers=10
+#
+# Other benchmarks: java -jar target/benchmarks.jar <regexp> -prof gc -rf json -rff out.json
 
-# java -XX:+PrintCompilation -verbose:gc -jar target/benchmarks.jar
-java -Xms256m -Xmx256m -XX:+PrintGCDetails -XX:+PrintGCTimeStamps -jar target/benchmarks.jar
+cd "$(dirname "$0")"
+
+PRODUCERS=${PRODUCERS:-"1 2 4 $(nproc)"}
+DISPATCHERS=${DISPATCHERS:-"direct,single-thread,bounded,ring-buffer,fork-join,virtual-thread,partitioned,batching,conflating,throttle,keyed-debounce"}
+
+OUT=results/$(date +%Y%m%d-%H%M%S)
+mkdir -p $OUT
+
+for threads in $(echo $PRODUCERS | tr ' ' '\n' | sort -nu); do
+    java -jar target/benchmarks.jar "benchmark.eventbus.EventBenchmark\\." \
+        -t $threads -p dispatcher=$DISPATCHERS \
+        -jvmArgsAppend "-Xms256m -Xmx256m" \
+        -prof gc \
+        -rf json -rff $OUT/EventBenchmark-t$threads.json \
+        "$@" | tee $OUT/EventBenchmark-t$threads.log
+done
+
+echo "Results in $OUT"
@@ -1,6 +1,8 @@
 package benchmark.eventbus;
 
+import java.util.List;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
 
 import org.openjdk.jmh.annotations.Benchmark;
 import org.openjdk.jmh.annotations.BenchmarkMode;
@@ -8,54 +10,170 @@ import org.openjdk.jmh.annotations.Fork;
 import org.openjdk.jmh.annotations.Measurement;
 import org.openjdk.jmh.annotations.Mode;
 import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
 import org.openjdk.jmh.annotations.Scope;
 import org.openjdk.jmh.annotations.Setup;
 import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
 import org.openjdk.jmh.annotations.Warmup;
-import org.openjdk.jmh.infra.Blackhole;
 
+import com.ricardojlrufino.eventbus.BatchEventHandler;
 import com.ricardojlrufino.eventbus.EventBus;
+import com.ricardojlrufino.eventbus.EventBusListener;
+import com.ricardojlrufino.eventbus.EventDispatcher;
+import com.ricardojlrufino.eventbus.EventHandler;
+import com.ricardojlrufino.eventbus.EventMessage;
+import com.ricardojlrufino.eventbus.KeyedEventDispatcher;
+import com.ricardojlrufino.eventbus.dispatcher.BatchingEventDispatcher;
+import com.ricardojlrufino.eventbus.dispatcher.BoundedEventDispatcher;
+import com.ricardojlrufino.eventbus.dispatcher.ConflatingEventDispatcher;
+import com.ricardojlrufino.eventbus.dispatcher.DirectEventDispatcher;
+import com.ricardojlrufino.eventbus.dispatcher.ForkJoinEventDispatcher;
+import com.ricardojlrufino.eventbus.dispatcher.KeyedDebounceEventDispatcher;
+import com.ricardojlrufino.eventbus.dispatcher.PartitionedEventDispatcher;
+import com.ricardojlrufino.eventbus.dispatcher.RingBufferEventDispatcher;
+import com.ricardojlrufino.eventbus.dispatcher.RingBufferEventDispatcher.ProducerType;
+import com.ricardojlrufino.eventbus.dispatcher.SingleThreadEventDispatcher;
+import com.ricardojlrufino.eventbus.dispatcher.ThrottleEventDispatcher;
+import com.ricardojlrufino.eventbus.dispatcher.VirtualThreadEventDispatcher;
 
-@OutputTimeUnit(TimeUnit.MILLISECONDS)
-@State( Scope.Benchmark )
+/**
+ * End-to-end latency of each dispatcher: from {@link EventBus#notify(EventMessage)} until the last handler ran. <br/>
+ * Each producer thread publishes one event and waits for it, the number of producers is the JMH thread count
+ * (<code>-t</code>, see benchmark.sh). The keyed dispatchers use the producer as key, so the coalescing ones never
+ * drop an event that a producer is waiting for. The batching dispatcher delivers to {@link BatchEventHandler}s, so the
+ * events of concurrent producers share batches. <br/>
+ * {@link com.ricardojlrufino.eventbus.dispatcher.DebounceEventDispatcher} is not in the suite: it drops an event while the
+ * previous task is not done, which can still be the case after its handlers ran, so a waiting producer could hang. <br/>
+ * Run with <code>-prof gc</code> for the allocation rate, and <code>-rf json</code> to compare versions.
+ */
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Fork(value = 1)
+@Measurement(iterations = 5, time = 1)
+@Warmup(iterations = 3, time = 1)
 public class EventBenchmark {
 
     @Benchmark
-    @Fork(value = 2)
-    @Measurement(iterations = 10, time = 1)
-    @Warmup(iterations = 5, time = 1)
-    public void testMethodHandleSpeed(Blackhole blackhole) {
-        EventBus.notify(new UIEvents.EventBenchmark(blackhole));
+    public void publishAndWait( Bus bus , Producer producer ) {
+        producer.publishAndWait(bus.handlers);
     }
 
-    
-//    /**
-//     * Runner options that runs all benchmarks in this test class
-//     * namely benchmark oldWay and newWay.
-//     * @return
-//     */
-//    private Options initBench() {
-//        return new OptionsBuilder() //
-//                .include(SampleBenchmarkTest.class.getSimpleName() + ".*") //
-//                .mode(Mode.AverageTime) //
-//                .verbosity(VerboseMode.EXTRA) //
-//                .timeUnit(TimeUnit.MILLISECONDS) //
-//                .warmupTime(TimeValue.seconds(1)) //
-//                .measurementTime(TimeValue.milliseconds(1)) //
-//                .measurementIterations(2) //
-//                .threads(4) //
-//                .warmupIterations(2) //
-//                .shouldFailOnError(true) //
-//                .shouldDoGC(true) //
-//                .forks(1) //
-//                .build();
-//    }
-    
-    @Setup
-    public void setup( Blackhole blackhole ) {
-        EventBus.register(UIEvents.BOARD_CHANGE, event -> {
-            event.getBlackhole().consume(event);
-        });
+    @State(Scope.Benchmark)
+    public static class Bus {
+
+        @Param({ "direct", "single-thread", "bounded", "ring-buffer", "fork-join", "virtual-thread", "partitioned",
+                 "batching", "conflating", "throttle", "keyed-debounce" })
+        public String dispatcher;
+
+        @Param({ "1", "10", "100" })
+        public int handlers;
+
+        /** A no-op {@link EventBusListener}: the cost of the callbacks */
+        @Param({ "false", "true" })
+        public boolean listener;
+
+        @Setup
+        public void setup() {
+            EventDispatcher eventDispatcher = create(dispatcher);
+            if (eventDispatcher instanceof KeyedEventDispatcher) {
+                EventBus.configDispatcher(LatencyEvent.class, (KeyedEventDispatcher) eventDispatcher, event -> event.producer);
+            } else {
+                EventBus.configDispatcher(LatencyEvent.class, eventDispatcher);
+            }
+
+            boolean batching = dispatcher.equals("batching");
+            for (int i = 0; i < handlers; i++) {
+                EventBus.register(LatencyEvent.class, batching ? new BatchDelivery() : new Delivery());
+            }
+
+            if (listener) EventBus.addBusListener(new EventBusListener() {});
+        }
+
+        @TearDown
+        public void tearDown() {
+            EventBus.shutdown(true, 1000);
+        }
+    }
+
+    @State(Scope.Thread)
+    public static class Producer {
+
+        final AtomicLong delivered = new AtomicLong();
+
+        long expected;
+
+        void publishAndWait( int handlers ) {
+            EventBus.notify(new LatencyEvent(this));
+
+            expected += handlers;
+            while (delivered.get() < expected) {
+                Thread.yield();
+            }
+        }
+    }
+
+    static EventDispatcher create( String dispatcher ) {
+        switch (dispatcher) {
+            case "direct":
+                return new DirectEventDispatcher();
+            case "single-thread":
+                return new SingleThreadEventDispatcher(LatencyEvent.class);
+            case "bounded":
+                return new BoundedEventDispatcher(LatencyEvent.class, 1024, BoundedEventDispatcher.OverflowPolicy.BLOCK);
+            case "ring-buffer":
+                return new RingBufferEventDispatcher(LatencyEvent.class, 1024, ProducerType.MULTI);
+            case "fork-join":
+                return new ForkJoinEventDispatcher();
+            case "virtual-thread":
+                return new VirtualThreadEventDispatcher(Integer.MAX_VALUE);
+            case "partitioned":
+                return new PartitionedEventDispatcher(LatencyEvent.class, 4);
+            case "batching":
+                return new BatchingEventDispatcher(LatencyEvent.class, 64, 1);
+            case "conflating":
+                return new ConflatingEventDispatcher(LatencyEvent.class);
+            case "throttle":
+                // Limit far above the benchmark rate: the cost of the bucket, not the wait
+                return new ThrottleEventDispatcher(LatencyEvent.class, 1e9, 1000, ThrottleEventDispatcher.OverflowPolicy.QUEUE, true);
+            case "keyed-debounce":
+                return new KeyedDebounceEventDispatcher(LatencyEvent.class, 0);
+            default:
+                throw new IllegalArgumentException("Unknown dispatcher: " + dispatcher);
+        }
+    }
+
+    /**
+     * A class and not a lambda: a non capturing lambda is a single instance, registered only once.
+     */
+    static class Delivery implements EventHandler<LatencyEvent> {
+
+        @Override
+        public void onEvent( LatencyEvent event ) {
+            event.producer.delivered.incrementAndGet();
+        }
+    }
+
+    /**
+     * Each event of the batch counts for its own producer.
+     */
+    static class BatchDelivery implements BatchEventHandler<LatencyEvent> {
+
+        @Override
+        public void onBatch( List<LatencyEvent> events ) {
+            for (LatencyEvent event : events) {
+                event.producer.delivered.incrementAndGet();
+            }
+        }
+    }
+
+    public static class LatencyEvent implements EventMessage {
+
+        final Producer producer;
+
+        public LatencyEvent( Producer producer ) {
+            this.producer = producer;
+        }
     }
 
-}
\ No newline at end of file
+}
@@ -0,0 +1,68 @@
+package benchmark.eventbus;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.ricardojlrufino.eventbus.EventBus;
+import com.ricardojlrufino.eventbus.EventMessage;
+import com.ricardojlrufino.eventbus.dispatcher.SingleThreadEventDispatcher;
+
+/**
+ * Publishes an event with many handlers on the {@link SingleThreadEventDispatcher} and waits until the last handler ran.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Benchmark)
+@Fork(value = 2)
+@Measurement(iterations = 10, time = 1)
+@Warmup(iterations = 5, time = 1)
+public class FanOutBenchmark {
+
+    @Param({ "1", "10", "50" })
+    public int handlers;
+
+    private final AtomicLong delivered = new AtomicLong();
+
+    private long expected;
+
+    @Benchmark
+    public void publishAndWait() {
+        EventBus.notify(new FanOutEvent());
+
+        expected += handlers;
+        while (delivered.get() < expected) {
+            Thread.yield();
+        }
+    }
+
+    @Setup
+    public void setup() {
+        EventBus.configDispatcher(FanOutEvent.class, new SingleThreadEventDispatcher(FanOutEvent.class));
+
+        for (int i = 0; i < handlers; i++) {
+            EventBus.register(FanOutEvent.class, event -> delivered.incrementAndGet());
+        }
+    }
+
+    @TearDown
+    public void tearDown() {
+        EventBus.shutdown(true, 1000);
+    }
+
+    public static class FanOutEvent implements EventMessage {
+    }
+
+}
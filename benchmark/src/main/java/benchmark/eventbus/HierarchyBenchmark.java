@@ -0,0 +1,92 @@
+package benchmark.eventbus;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import com.ricardojlrufino.eventbus.EventBus;
+import com.ricardojlrufino.eventbus.EventMessage;
+
+/**
+ * Compares the publish cost of an event delivered to a handler of its exact type
+ * with one delivered to handlers of its superclass and interface. <br/>
+ * The hierarchy is resolved once per event class, so both should cost the same.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@State(Scope.Benchmark)
+@Fork(value = 2)
+@Measurement(iterations = 10, time = 1)
+@Warmup(iterations = 5, time = 1)
+public class HierarchyBenchmark {
+
+    @Benchmark
+    public void exactType( Blackhole blackhole ) {
+        EventBus.notify(new ExactEvent(blackhole));
+    }
+
+    @Benchmark
+    public void hierarchy( Blackhole blackhole ) {
+        EventBus.notify(new ResizeEvent(blackhole));
+    }
+
+    @Setup
+    public void setup() {
+        EventBus.get().setDefaultDispatcher(new InlineEventDispatcher());
+
+        // Two handlers on each path
+        EventBus.register(ExactEvent.class, event -> event.blackhole.consume(event));
+        EventBus.register(ExactEvent.class, event -> event.blackhole.consume(event));
+
+        EventBus.register(BoardEvent.class, event -> event.blackhole.consume(event));
+        EventBus.register(MarkerEvent.class, event -> event.getBlackhole().consume(event));
+    }
+
+    @TearDown
+    public void tearDown() {
+        EventBus.shutdown(true, 1000);
+    }
+
+    public interface MarkerEvent extends EventMessage {
+        Blackhole getBlackhole();
+    }
+
+    public static class ExactEvent implements EventMessage {
+        final Blackhole blackhole;
+
+        public ExactEvent( Blackhole blackhole ) {
+            this.blackhole = blackhole;
+        }
+    }
+
+    public static class BoardEvent implements MarkerEvent {
+        final Blackhole blackhole;
+
+        public BoardEvent( Blackhole blackhole ) {
+            this.blackhole = blackhole;
+        }
+
+        @Override
+        public Blackhole getBlackhole() {
+            return blackhole;
+        }
+    }
+
+    public static class ResizeEvent extends BoardEvent {
+        public ResizeEvent( Blackhole blackhole ) {
+            super(blackhole);
+        }
+    }
+
+}
@@ -0,0 +1,22 @@
+package benchmark.eventbus;
+
+import com.ricardojlrufino.eventbus.EventBusListener;
+import com.ricardojlrufino.eventbus.EventDispatcher;
+import com.ricardojlrufino.eventbus.EventHandler;
+import com.ricardojlrufino.eventbus.EventMessage;
+
+/**
+ * Runs the handler on the caller thread, so benchmarks measure the bus and not a dispatcher queue.
+ */
+public class InlineEventDispatcher implements EventDispatcher {
+
+    @Override
+    public <E extends EventMessage> void dispatch( E event , EventHandler<E> handler , EventBusListener busListener ) {
+        handler.onEvent(event);
+    }
+
+    @Override
+    public void shutdown( boolean wait , long millis ) {
+    }
+
+}
@@ -0,0 +1,62 @@
+package benchmark.eventbus;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import com.ricardojlrufino.eventbus.EventBus;
+import com.ricardojlrufino.eventbus.EventMessage;
+
+/**
+ * Measures the publish path of {@link EventBus#notify(EventMessage)} with many concurrent producers.
+ * The handler runs on the caller thread, so the numbers reflect the cost of the bus itself
+ * (singleton lookup, handler resolution) and not the queue of a dispatcher.
+ * Compare the 1 and 32 threads results: the throughput per thread should not collapse.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@State(Scope.Benchmark)
+@Fork(value = 2)
+@Measurement(iterations = 10, time = 1)
+@Warmup(iterations = 5, time = 1)
+public class MultiProducerBenchmark {
+
+    @Benchmark
+    @Threads(1)
+    public void notifySingleProducer( Blackhole blackhole ) {
+        EventBus.notify(new UIEvents.EventBenchmark(blackhole));
+    }
+
+    @Benchmark
+    @Threads(32)
+    public void notify32Producers( Blackhole blackhole ) {
+        EventBus.notify(new UIEvents.EventBenchmark(blackhole));
+    }
+
+    @Setup
+    public void setup() {
+        EventBus.configDispatcher(UIEvents.BOARD_CHANGE, new InlineEventDispatcher());
+
+        EventBus.register(UIEvents.BOARD_CHANGE, event -> {
+            event.getBlackhole().consume(event);
+        });
+    }
+
+    @TearDown
+    public void tearDown() {
+        EventBus.shutdown(true, 1000);
+    }
+
+}
@@ -0,0 +1,95 @@
+package benchmark.eventbus;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import com.ricardojlrufino.eventbus.EventBus;
+import com.ricardojlrufino.eventbus.EventMessage;
+import com.ricardojlrufino.eventbus.dispatcher.PartitionedEventDispatcher;
+
+/**
+ * Throughput of the {@link PartitionedEventDispatcher} by number of lanes, with a CPU bound handler
+ * and events spread over many accounts. It should scale with the lanes, up to the number of cores.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@State(Scope.Benchmark)
+@Fork(value = 2)
+@Measurement(iterations = 10, time = 1)
+@Warmup(iterations = 5, time = 1)
+public class PartitionedBenchmark {
+
+    private static final int BATCH = 1000;
+
+    private static final int ACCOUNTS = 256;
+
+    @Param({ "1", "2", "4", "8" })
+    public int lanes;
+
+    @Param({ "500" })
+    public int handlerTokens;
+
+    private final AtomicLong delivered = new AtomicLong();
+
+    private long expected;
+
+    private AccountEvent[] events;
+
+    @Benchmark
+    @OperationsPerInvocation(BATCH)
+    public void publishAndWait() {
+        for (int i = 0; i < BATCH; i++) {
+            EventBus.notify(events[i % ACCOUNTS]);
+        }
+
+        expected += BATCH;
+        while (delivered.get() < expected) {
+            Thread.yield();
+        }
+    }
+
+    @Setup
+    public void setup() {
+        events = new AccountEvent[ACCOUNTS];
+        for (int i = 0; i < ACCOUNTS; i++) {
+            events[i] = new AccountEvent(i);
+        }
+
+        EventBus.configDispatcher(AccountEvent.class, new PartitionedEventDispatcher(AccountEvent.class, lanes), event -> event.account);
+
+        EventBus.register(AccountEvent.class, event -> {
+            Blackhole.consumeCPU(handlerTokens);
+            delivered.incrementAndGet();
+        });
+    }
+
+    @TearDown
+    public void tearDown() {
+        EventBus.shutdown(true, 1000);
+    }
+
+    public static class AccountEvent implements EventMessage {
+
+        final Integer account;
+
+        public AccountEvent( int account ) {
+            this.account = account;
+        }
+    }
+
+}
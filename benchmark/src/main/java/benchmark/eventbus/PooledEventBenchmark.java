@@ -0,0 +1,105 @@
+package benchmark.eventbus;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.ricardojlrufino.eventbus.EventBus;
+import com.ricardojlrufino.eventbus.EventMessage;
+import com.ricardojlrufino.eventbus.PooledEventMessage;
+import com.ricardojlrufino.eventbus.dispatcher.RingBufferEventDispatcher;
+import com.ricardojlrufino.eventbus.dispatcher.RingBufferEventDispatcher.ProducerType;
+
+/**
+ * Allocation of <code>notify(new ...)</code> compared to pooled events from {@link EventBus#obtain(Class)}, both on the
+ * {@link RingBufferEventDispatcher} (that does not allocate a task per event). <br/>
+ * Run with <code>-prof gc</code> and compare <code>gc.alloc.rate.norm</code>.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Fork(value = 2)
+@Measurement(iterations = 10, time = 1)
+@Warmup(iterations = 5, time = 1)
+@State(Scope.Benchmark)
+public class PooledEventBenchmark {
+
+    private static final int BATCH = 1000;
+
+    final AtomicLong delivered = new AtomicLong();
+
+    long expected;
+
+    @Setup
+    public void setup() {
+        EventBus.configDispatcher(NewEvent.class, new RingBufferEventDispatcher(NewEvent.class, 4096, ProducerType.SINGLE));
+        EventBus.configDispatcher(PooledEvent.class, new RingBufferEventDispatcher(PooledEvent.class, 4096, ProducerType.SINGLE));
+        EventBus.configPool(PooledEvent.class, PooledEvent::new, 4096);
+
+        EventBus.register(NewEvent.class, event -> delivered.lazySet(delivered.get() + event.value));
+        EventBus.register(PooledEvent.class, event -> delivered.lazySet(delivered.get() + event.value));
+    }
+
+    @TearDown
+    public void tearDown() {
+        EventBus.shutdown(true, 1000);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BATCH)
+    public void newEvent() {
+        for (int i = 0; i < BATCH; i++) {
+            EventBus.notify(new NewEvent(1));
+        }
+        await();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BATCH)
+    public void pooledEvent() {
+        for (int i = 0; i < BATCH; i++) {
+            PooledEvent event = EventBus.obtain(PooledEvent.class);
+            event.value = 1;
+            EventBus.notify(event);
+        }
+        await();
+    }
+
+    private void await() {
+        expected += BATCH;
+        while (delivered.get() < expected) {
+            Thread.yield();
+        }
+    }
+
+    public static class NewEvent implements EventMessage {
+
+        final long value;
+
+        public NewEvent( long value ) {
+            this.value = value;
+        }
+    }
+
+    public static class PooledEvent extends PooledEventMessage {
+
+        long value;
+
+        @Override
+        protected void reset() {
+            value = 0;
+        }
+    }
+
+}
@@ -0,0 +1,136 @@
+package benchmark.eventbus;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.ricardojlrufino.eventbus.EventBus;
+import com.ricardojlrufino.eventbus.EventDispatcher;
+import com.ricardojlrufino.eventbus.EventMessage;
+import com.ricardojlrufino.eventbus.dispatcher.RingBufferEventDispatcher;
+import com.ricardojlrufino.eventbus.dispatcher.RingBufferEventDispatcher.ProducerType;
+import com.ricardojlrufino.eventbus.dispatcher.SingleThreadEventDispatcher;
+
+/**
+ * Events per second delivered by the {@link RingBufferEventDispatcher} compared to the {@link SingleThreadEventDispatcher}.
+ * Each invocation publishes a batch of events and waits until the handler received all of them. <br/>
+ * Run with <code>-prof gc</code> to compare the allocation rate.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Fork(value = 2)
+@Measurement(iterations = 10, time = 1)
+@Warmup(iterations = 5, time = 1)
+public class RingBufferBenchmark {
+
+    private static final int BATCH = 1000;
+
+    private static final int BUFFER_SIZE = 4096;
+
+    @Benchmark
+    @OperationsPerInvocation(BATCH)
+    public void singleProducer( SingleProducerBus bus , Producer producer ) {
+        producer.publishBatch();
+    }
+
+    @Benchmark
+    @Threads(4)
+    @OperationsPerInvocation(BATCH)
+    public void fourProducers( MultiProducerBus bus , Producer producer ) {
+        producer.publishBatch();
+    }
+
+    @State(Scope.Benchmark)
+    public static class SingleProducerBus {
+
+        @Param({ "single-thread", "ring-buffer-single", "ring-buffer-multi" })
+        public String dispatcher;
+
+        @Setup
+        public void setup() {
+            configure(dispatcher);
+        }
+
+        @TearDown
+        public void tearDown() {
+            EventBus.shutdown(true, 1000);
+        }
+    }
+
+    @State(Scope.Benchmark)
+    public static class MultiProducerBus {
+
+        @Param({ "single-thread", "ring-buffer-multi" })
+        public String dispatcher;
+
+        @Setup
+        public void setup() {
+            configure(dispatcher);
+        }
+
+        @TearDown
+        public void tearDown() {
+            EventBus.shutdown(true, 1000);
+        }
+    }
+
+    @State(Scope.Thread)
+    public static class Producer {
+
+        final AtomicLong delivered = new AtomicLong();
+
+        long expected;
+
+        void publishBatch() {
+            for (int i = 0; i < BATCH; i++) {
+                EventBus.notify(new ThroughputEvent(delivered));
+            }
+
+            expected += BATCH;
+            while (delivered.get() < expected) {
+                Thread.yield();
+            }
+        }
+    }
+
+    static void configure( String dispatcher ) {
+        EventDispatcher eventDispatcher;
+        switch (dispatcher) {
+            case "ring-buffer-single":
+                eventDispatcher = new RingBufferEventDispatcher(ThroughputEvent.class, BUFFER_SIZE, ProducerType.SINGLE);
+                break;
+            case "ring-buffer-multi":
+                eventDispatcher = new RingBufferEventDispatcher(ThroughputEvent.class, BUFFER_SIZE, ProducerType.MULTI);
+                break;
+            default:
+                eventDispatcher = new SingleThreadEventDispatcher(ThroughputEvent.class);
+        }
+
+        EventBus.configDispatcher(ThroughputEvent.class, eventDispatcher);
+        EventBus.register(ThroughputEvent.class, event -> event.delivered.lazySet(event.delivered.get() + 1));
+    }
+
+    public static class ThroughputEvent implements EventMessage {
+
+        final AtomicLong delivered;
+
+        public ThroughputEvent( AtomicLong delivered ) {
+            this.delivered = delivered;
+        }
+    }
+
+}
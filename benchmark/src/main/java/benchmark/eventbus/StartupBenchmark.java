@@ -0,0 +1,149 @@
+package benchmark.eventbus;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import com.ricardojlrufino.eventbus.EventBus;
+import com.ricardojlrufino.eventbus.EventMessage;
+import com.ricardojlrufino.eventbus.Subscribe;
+
+/**
+ * Time to register the first subscribers in a new JVM, and deliver one event of each type: with the indexes generated by
+ * eventbus4j-processor, and with the runtime scanning (<code>-Deventbus4j.ignoreIndex=true</code>). <br/>
+ * Each fork measures a single cold call.
+ */
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 0)
+@Measurement(iterations = 1)
+public class StartupBenchmark {
+
+    @Benchmark
+    @Fork(value = 20)
+    public void index( Blackhole blackhole ) {
+        registerAll(blackhole);
+    }
+
+    @Benchmark
+    @Fork(value = 20, jvmArgsAppend = "-Deventbus4j.ignoreIndex=true")
+    public void reflection( Blackhole blackhole ) {
+        registerAll(blackhole);
+    }
+
+    private static void registerAll( Blackhole blackhole ) {
+        EventBus.get().setDefaultDispatcher(new InlineEventDispatcher());
+
+        EventBus.registerSubscriber(new Subscriber0());
+        EventBus.registerSubscriber(new Subscriber1());
+        EventBus.registerSubscriber(new Subscriber2());
+        EventBus.registerSubscriber(new Subscriber3());
+        EventBus.registerSubscriber(new Subscriber4());
+        EventBus.registerSubscriber(new Subscriber5());
+        EventBus.registerSubscriber(new Subscriber6());
+        EventBus.registerSubscriber(new Subscriber7());
+
+        EventBus.notify(new EventA(blackhole));
+        EventBus.notify(new EventB(blackhole));
+        EventBus.notify(new EventC(blackhole));
+        EventBus.notify(new EventD(blackhole));
+
+        EventBus.shutdown(true, 1000);
+    }
+
+    public static class Subscriber0 {
+        @Subscribe public void onA( EventA event ) { event.blackhole.consume(event); }
+        @Subscribe public void onB( EventB event ) { event.blackhole.consume(event); }
+        @Subscribe public void onC( EventC event ) { event.blackhole.consume(event); }
+        @Subscribe public void onD( EventD event ) { event.blackhole.consume(event); }
+    }
+
+    public static class Subscriber1 {
+        @Subscribe public void onA( EventA event ) { event.blackhole.consume(event); }
+        @Subscribe public void onB( EventB event ) { event.blackhole.consume(event); }
+        @Subscribe public void onC( EventC event ) { event.blackhole.consume(event); }
+        @Subscribe public void onD( EventD event ) { event.blackhole.consume(event); }
+    }
+
+    public static class Subscriber2 {
+        @Subscribe public void onA( EventA event ) { event.blackhole.consume(event); }
+        @Subscribe public void onB( EventB event ) { event.blackhole.consume(event); }
+        @Subscribe public void onC( EventC event ) { event.blackhole.consume(event); }
+        @Subscribe public void onD( EventD event ) { event.blackhole.consume(event); }
+    }
+
+    public static class Subscriber3 {
+        @Subscribe public void onA( EventA event ) { event.blackhole.consume(event); }
+        @Subscribe public void onB( EventB event ) { event.blackhole.consume(event); }
+        @Subscribe public void onC( EventC event ) { event.blackhole.consume(event); }
+        @Subscribe public void onD( EventD event ) { event.blackhole.consume(event); }
+    }
+
+    public static class Subscriber4 {
+        @Subscribe public void onA( EventA event ) { event.blackhole.consume(event); }
+        @Subscribe public void onB( EventB event ) { event.blackhole.consume(event); }
+        @Subscribe public void onC( EventC event ) { event.blackhole.consume(event); }
+        @Subscribe public void onD( EventD event ) { event.blackhole.consume(event); }
+    }
+
+    public static class Subscriber5 {
+        @Subscribe public void onA( EventA event ) { event.blackhole.consume(event); }
+        @Subscribe public void onB( EventB event ) { event.blackhole.consume(event); }
+        @Subscribe public void onC( EventC event ) { event.blackhole.consume(event); }
+        @Subscribe public void onD( EventD event ) { event.blackhole.consume(event); }
+    }
+
+    public static class Subscriber6 {
+        @Subscribe public void onA( EventA event ) { event.blackhole.consume(event); }
+        @Subscribe public void onB( EventB event ) { event.blackhole.consume(event); }
+        @Subscribe public void onC( EventC event ) { event.blackhole.consume(event); }
+        @Subscribe public void onD( EventD event ) { event.blackhole.consume(event); }
+    }
+
+    public static class Subscriber7 {
+        @Subscribe public void onA( EventA event ) { event.blackhole.consume(event); }
+        @Subscribe public void onB( EventB event ) { event.blackhole.consume(event); }
+        @Subscribe public void onC( EventC event ) { event.blackhole.consume(event); }
+        @Subscribe public void onD( EventD event ) { event.blackhole.consume(event); }
+    }
+
+    public static class EventA implements EventMessage {
+        final Blackhole blackhole;
+
+        public EventA( Blackhole blackhole ) {
+            this.blackhole = blackhole;
+        }
+    }
+
+    public static class EventB implements EventMessage {
+        final Blackhole blackhole;
+
+        public EventB( Blackhole blackhole ) {
+            this.blackhole = blackhole;
+        }
+    }
+
+    public static class EventC implements EventMessage {
+        final Blackhole blackhole;
+
+        public EventC( Blackhole blackhole ) {
+            this.blackhole = blackhole;
+        }
+    }
+
+    public static class EventD implements EventMessage {
+        final Blackhole blackhole;
+
+        public EventD( Blackhole blackhole ) {
+            this.blackhole = blackhole;
+        }
+    }
+
+}
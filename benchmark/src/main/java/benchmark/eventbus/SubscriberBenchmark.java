@@ -0,0 +1,99 @@
+package benchmark.eventbus;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import com.ricardojlrufino.eventbus.EventBus;
+import com.ricardojlrufino.eventbus.EventMessage;
+import com.ricardojlrufino.eventbus.Subscribe;
+
+/**
+ * Publish cost of a lambda handler compared to {@link Subscribe} methods registered with {@link EventBus#registerSubscriber(Object)}:
+ * a public method (bound with LambdaMetafactory) and a private one (bound with a MethodHandle).
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@State(Scope.Benchmark)
+@Fork(value = 2)
+@Measurement(iterations = 10, time = 1)
+@Warmup(iterations = 5, time = 1)
+public class SubscriberBenchmark {
+
+    @Benchmark
+    public void lambda( Blackhole blackhole ) {
+        EventBus.notify(new LambdaEvent(blackhole));
+    }
+
+    @Benchmark
+    public void publicSubscriber( Blackhole blackhole ) {
+        EventBus.notify(new PublicEvent(blackhole));
+    }
+
+    @Benchmark
+    public void privateSubscriber( Blackhole blackhole ) {
+        EventBus.notify(new PrivateEvent(blackhole));
+    }
+
+    @Setup
+    public void setup() {
+        EventBus.get().setDefaultDispatcher(new InlineEventDispatcher());
+
+        EventBus.register(LambdaEvent.class, event -> event.blackhole.consume(event));
+        EventBus.registerSubscriber(new Subscriber());
+    }
+
+    @TearDown
+    public void tearDown() {
+        EventBus.shutdown(true, 1000);
+    }
+
+    public static class Subscriber {
+
+        @Subscribe
+        public void onPublic( PublicEvent event ) {
+            event.blackhole.consume(event);
+        }
+
+        @Subscribe
+        private void onPrivate( PrivateEvent event ) {
+            event.blackhole.consume(event);
+        }
+    }
+
+    public static class LambdaEvent implements EventMessage {
+        final Blackhole blackhole;
+
+        public LambdaEvent( Blackhole blackhole ) {
+            this.blackhole = blackhole;
+        }
+    }
+
+    public static class PublicEvent implements EventMessage {
+        final Blackhole blackhole;
+
+        public PublicEvent( Blackhole blackhole ) {
+            this.blackhole = blackhole;
+        }
+    }
+
+    public static class PrivateEvent implements EventMessage {
+        final Blackhole blackhole;
+
+        public PrivateEvent( Blackhole blackhole ) {
+            this.blackhole = blackhole;
+        }
+    }
+
+}
@@ -0,0 +1,359 @@
+package com.ricardojlrufino.eventbus.processor;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+
+import javax.annotation.processing.AbstractProcessor;
+import javax.annotation.processing.Messager;
+import javax.annotation.processing.RoundEnvironment;
+import javax.annotation.processing.SupportedAnnotationTypes;
+import javax.lang.model.SourceVersion;
+import javax.lang.model.element.AnnotationMirror;
+import javax.lang.model.element.AnnotationValue;
+import javax.lang.model.element.Element;
+import javax.lang.model.element.ElementKind;
+import javax.lang.model.element.ExecutableElement;
+import javax.lang.model.element.Modifier;
+import javax.lang.model.element.NestingKind;
+import javax.lang.model.element.TypeElement;
+import javax.lang.model.type.DeclaredType;
+import javax.lang.model.type.TypeKind;
+import javax.lang.model.type.TypeMirror;
+import javax.lang.model.util.ElementFilter;
+import javax.lang.model.util.Elements;
+import javax.lang.model.util.Types;
+import javax.tools.Diagnostic;
+import javax.tools.FileObject;
+import javax.tools.StandardLocation;
+
+/**
+ * Generates a <code>SubscriberIndex</code> for each class with <code>@Subscribe</code> methods, and the
+ * <code>META-INF/services</code> entry used by the EventBus to find them. <br/>
+ *
+ * The generated code calls the methods directly (no reflection, no lambda bootstrap). Classes that can't be called from
+ * their package (private methods or types, protected methods of another package) are not indexed, they are scanned at runtime.
+ */
+@SupportedAnnotationTypes(SubscriberIndexProcessor.SUBSCRIBE)
+public class SubscriberIndexProcessor extends AbstractProcessor {
+
+    static final String SUBSCRIBE = "com.ricardojlrufino.eventbus.Subscribe";
+    static final String EVENT_MESSAGE = "com.ricardojlrufino.eventbus.EventMessage";
+    static final String EVENT_DISPATCHER = "com.ricardojlrufino.eventbus.EventDispatcher";
+    static final String EVENT_HANDLER = "com.ricardojlrufino.eventbus.EventHandler";
+    static final String SUBSCRIBER_INDEX = "com.ricardojlrufino.eventbus.SubscriberIndex";
+
+    static final String INDEX_SUFFIX = "_SubscriberIndex";
+
+    /** Generated index classes, written to the services file on the last round */
+    private final Set<String> indexes = new TreeSet<>();
+
+    @Override
+    public SourceVersion getSupportedSourceVersion() {
+        return SourceVersion.latestSupported();
+    }
+
+    @Override
+    public boolean process( Set<? extends TypeElement> annotations , RoundEnvironment roundEnv ) {
+        if (roundEnv.processingOver()) {
+            writeServices();
+            return false;
+        }
+
+        TypeElement subscribe = processingEnv.getElementUtils().getTypeElement(SUBSCRIBE);
+        if (subscribe == null) return false;
+
+        Set<TypeElement> subscribers = new LinkedHashSet<>();
+        Set<TypeElement> invalid = new LinkedHashSet<>();
+        for (Element element : roundEnv.getElementsAnnotatedWith(subscribe)) {
+            if (element.getKind() != ElementKind.METHOD) continue;
+
+            TypeElement subscriber = (TypeElement) element.getEnclosingElement();
+            subscribers.add(subscriber);
+            if (!isValid((ExecutableElement) element)) invalid.add(subscriber);
+        }
+
+        for (TypeElement subscriber : subscribers) {
+            if (invalid.contains(subscriber)) continue;
+            if (subscriber.getKind() != ElementKind.CLASS || subscriber.getModifiers().contains(Modifier.ABSTRACT)) continue;
+
+            List<ExecutableElement> methods = collect(subscriber);
+            if (methods != null) write(subscriber, methods);
+        }
+
+        return false;
+    }
+
+    /**
+     * Same rules of the runtime scanning: instance method with one EventMessage parameter, and a dispatcher hint with a
+     * public constructor without parameters.
+     */
+    private boolean isValid( ExecutableElement method ) {
+        Types types = processingEnv.getTypeUtils();
+        TypeMirror eventMessage = processingEnv.getElementUtils().getTypeElement(EVENT_MESSAGE).asType();
+
+        if (method.getModifiers().contains(Modifier.STATIC) || method.getParameters().size() != 1
+                        || !types.isAssignable(types.erasure(method.getParameters().get(0).asType()), eventMessage)) {
+            error(method, "@Subscribe method must be an instance method with one EventMessage parameter");
+            return false;
+        }
+
+        TypeElement dispatcher = dispatcherHint(method);
+        if (dispatcher != null) {
+            boolean constructor = false;
+            for (ExecutableElement element : ElementFilter.constructorsIn(dispatcher.getEnclosedElements())) {
+                if (element.getParameters().isEmpty() && element.getModifiers().contains(Modifier.PUBLIC)) constructor = true;
+            }
+            if (!constructor || dispatcher.getModifiers().contains(Modifier.ABSTRACT)) {
+                error(method, "@Subscribe dispatcher needs a public constructor without parameters");
+                return false;
+            }
+        }
+
+        return true;
+    }
+
+    /**
+     * Annotated methods of the class and its superclasses, or null if one of them can't be called from the generated index.
+     */
+    private List<ExecutableElement> collect( TypeElement subscriber ) {
+        Elements elements = processingEnv.getElementUtils();
+        Types types = processingEnv.getTypeUtils();
+        String packageName = elements.getPackageOf(subscriber).getQualifiedName().toString();
+
+        if (!isAccessible(subscriber, packageName)) return skip(subscriber, "the class is not accessible from its package");
+
+        List<ExecutableElement> methods = new ArrayList<>();
+        Set<String> signatures = new LinkedHashSet<>();
+
+        for (TypeElement type = subscriber; type != null; type = superclass(type)) {
+            for (ExecutableElement method : ElementFilter.methodsIn(type.getEnclosedElements())) {
+                if (subscribeOf(method) == null) continue;
+
+                TypeMirror eventType = types.erasure(method.getParameters().get(0).asType());
+                if (!signatures.add(method.getSimpleName() + "(" + eventType + ")")) continue;
+
+                if (type != subscriber && !isValid(method)) return null;
+
+                boolean samePackage = elements.getPackageOf(type).getQualifiedName().contentEquals(packageName);
+                if (method.getModifiers().contains(Modifier.PRIVATE) || (!method.getModifiers().contains(Modifier.PUBLIC) && !samePackage)) {
+                    return skip(subscriber, method.getSimpleName() + " is not accessible from the package");
+                }
+
+                if (!isAccessible((TypeElement) types.asElement(eventType), packageName)) {
+                    return skip(subscriber, "the event of " + method.getSimpleName() + " is not accessible from the package");
+                }
+
+                methods.add(method);
+            }
+        }
+
+        return methods;
+    }
+
+    private List<ExecutableElement> skip( TypeElement subscriber , String reason ) {
+        processingEnv.getMessager().printMessage(Diagnostic.Kind.NOTE, "Not indexed, it will be scanned at runtime: " + reason, subscriber);
+        return null;
+    }
+
+    private void write( TypeElement subscriber , List<ExecutableElement> methods ) {
+        Elements elements = processingEnv.getElementUtils();
+        Types types = processingEnv.getTypeUtils();
+
+        String packageName = elements.getPackageOf(subscriber).getQualifiedName().toString();
+        String subscriberName = types.erasure(subscriber.asType()).toString();
+        String flatName = elements.getBinaryName(subscriber).toString().substring(packageName.isEmpty() ? 0 : packageName.length() + 1).replace('$', '_');
+        String indexName = flatName + INDEX_SUFFIX;
+        String qualifiedName = (packageName.isEmpty() ? indexName : packageName + "." + indexName);
+
+        StringBuilder source = new StringBuilder();
+        if (!packageName.isEmpty()) source.append("package ").append(packageName).append(";\n\n");
+
+        source.append("/**\n * Subscriptions of {@link ").append(subscriberName).append("}. Generated by eventbus4j-processor, do not edit.\n */\n");
+        source.append("public final class ").append(indexName).append(" implements ").append(SUBSCRIBER_INDEX).append(" {\n\n");
+
+        source.append("    @Override\n");
+        source.append("    public void addSubscriptions(java.util.Map<Class<?>, Subscription[]> subscriptions) {\n");
+        source.append("        subscriptions.put(").append(subscriberName).append(".class, new Subscription[] {\n");
+        for (int i = 0; i < methods.size(); i++) {
+            ExecutableElement method = methods.get(i);
+            String eventType = eventType(method);
+            TypeElement dispatcher = dispatcherHint(method);
+
+            source.append("            new Subscription(").append(eventType).append(".class, new Binder(").append(i).append("), ")
+                  .append(dispatcher != null ? "new Binder(" + i + ")" : "null").append(", ").append(priority(method)).append("),\n");
+        }
+        source.append("        });\n");
+        source.append("    }\n\n");
+
+        // One class creates the handlers and the dispatchers, by method number
+        source.append("    private static final class Binder implements java.util.function.Function<Object, ").append(EVENT_HANDLER).append("<?>>, ")
+              .append("java.util.function.Supplier<").append(EVENT_DISPATCHER).append("> {\n\n");
+        source.append("        private final int method;\n\n");
+        source.append("        Binder(int method) {\n            this.method = method;\n        }\n\n");
+
+        source.append("        @Override\n");
+        source.append("        public ").append(EVENT_HANDLER).append("<?> apply(Object subscriber) {\n");
+        source.append("            switch (method) {\n");
+        for (int i = 0; i < methods.size(); i++) {
+            source.append("                case ").append(i).append(": return new Handler").append(i).append("((").append(subscriberName).append(") subscriber);\n");
+        }
+        source.append("                default: throw new IllegalStateException();\n");
+        source.append("            }\n");
+        source.append("        }\n\n");
+
+        source.append("        @Override\n");
+        source.append("        public ").append(EVENT_DISPATCHER).append(" get() {\n");
+        source.append("            switch (method) {\n");
+        for (int i = 0; i < methods.size(); i++) {
+            TypeElement dispatcher = dispatcherHint(methods.get(i));
+            if (dispatcher != null) {
+                source.append("                case ").append(i).append(": return new ").append(dispatcher.getQualifiedName()).append("();\n");
+            }
+        }
+        source.append("                default: throw new IllegalStateException();\n");
+        source.append("            }\n");
+        source.append("        }\n");
+        source.append("    }\n");
+
+        for (int i = 0; i < methods.size(); i++) {
+            ExecutableElement method = methods.get(i);
+            String eventType = eventType(method);
+
+            source.append("\n    private static final class Handler").append(i).append(" implements ").append(EVENT_HANDLER).append("<").append(eventType).append("> {\n\n");
+            source.append("        private final ").append(subscriberName).append(" subscriber;\n\n");
+            source.append("        Handler").append(i).append("(").append(subscriberName).append(" subscriber) {\n            this.subscriber = subscriber;\n        }\n\n");
+            source.append("        @Override\n");
+            source.append("        public void onEvent(").append(eventType).append(" event) {\n");
+            source.append("            subscriber.").append(method.getSimpleName()).append("(event);\n");
+            source.append("        }\n\n");
+            source.append("        @Override\n");
+            source.append("        public String toString() {\n");
+            source.append("            return \"").append(subscriberName).append(".").append(method.getSimpleName()).append("(").append(eventType).append(")\";\n");
+            source.append("        }\n");
+            source.append("    }\n");
+        }
+
+        source.append("\n}\n");
+
+        try (Writer writer = processingEnv.getFiler().createSourceFile(qualifiedName, subscriber).openWriter()) {
+            writer.write(source.toString());
+            indexes.add(qualifiedName);
+        } catch (IOException e) {
+            error(subscriber, "Can't write the subscriber index: " + e);
+        }
+    }
+
+    /**
+     * Writes the indexes of this compilation, with the ones of the existing services file: an incremental compile only
+     * sees the changed classes. The existing entries whose class is gone are dropped.
+     */
+    private void writeServices() {
+        if (indexes.isEmpty()) return;
+
+        String path = "META-INF/services/" + SUBSCRIBER_INDEX;
+        Elements elements = processingEnv.getElementUtils();
+        try {
+            FileObject existing = processingEnv.getFiler().getResource(StandardLocation.CLASS_OUTPUT, "", path);
+            try (BufferedReader reader = new BufferedReader(existing.openReader(true))) {
+                String line;
+                while ((line = reader.readLine()) != null) {
+                    line = line.trim();
+                    if (!line.isEmpty() && elements.getTypeElement(line) != null) indexes.add(line);
+                }
+            }
+        } catch (IOException e) {
+            // No services file yet
+        }
+
+        try {
+            FileObject file = processingEnv.getFiler().createResource(StandardLocation.CLASS_OUTPUT, "", path);
+            try (Writer writer = file.openWriter()) {
+                for (String index : indexes) {
+                    writer.write(index);
+                    writer.write('\n');
+                }
+            }
+        } catch (IOException e) {
+            processingEnv.getMessager().printMessage(Diagnostic.Kind.ERROR, "Can't write the services file: " + e);
+        }
+    }
+
+    private String eventType( ExecutableElement method ) {
+        Types types = processingEnv.getTypeUtils();
+        return types.erasure(method.getParameters().get(0).asType()).toString();
+    }
+
+    private AnnotationMirror subscribeOf( ExecutableElement method ) {
+        for (AnnotationMirror annotation : method.getAnnotationMirrors()) {
+            if (((TypeElement) annotation.getAnnotationType().asElement()).getQualifiedName().contentEquals(SUBSCRIBE)) return annotation;
+        }
+        return null;
+    }
+
+    /**
+     * Class of <code>@Subscribe(dispatcher = ...)</code>, or null for the default.
+     */
+    private TypeElement dispatcherHint( ExecutableElement method ) {
+        AnnotationMirror annotation = subscribeOf(method);
+        if (annotation == null) return null;
+
+        for (Map.Entry<? extends ExecutableElement, ? extends AnnotationValue> entry : annotation.getElementValues().entrySet()) {
+            if (entry.getKey().getSimpleName().contentEquals("dispatcher")) {
+                TypeElement type = (TypeElement) ((DeclaredType) entry.getValue().getValue()).asElement();
+                return (type.getQualifiedName().contentEquals(EVENT_DISPATCHER) ? null : type);
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Value of <code>@Subscribe(priority = ...)</code>.
+     */
+    private int priority( ExecutableElement method ) {
+        AnnotationMirror annotation = subscribeOf(method);
+        if (annotation == null) return 0;
+
+        for (Map.Entry<? extends ExecutableElement, ? extends AnnotationValue> entry : annotation.getElementValues().entrySet()) {
+            if (entry.getKey().getSimpleName().contentEquals("priority")) {
+                return (Integer) entry.getValue().getValue();
+            }
+        }
+        return 0;
+    }
+
+    private TypeElement superclass( TypeElement type ) {
+        TypeMirror superclass = type.getSuperclass();
+        if (superclass.getKind() != TypeKind.DECLARED) return null;
+
+        TypeElement element = (TypeElement) ((DeclaredType) superclass).asElement();
+        return (element.getQualifiedName().contentEquals("java.lang.Object") ? null : element);
+    }
+
+    /**
+     * If the type can be named from a class of the package.
+     */
+    private boolean isAccessible( TypeElement type , String packageName ) {
+        Elements elements = processingEnv.getElementUtils();
+
+        for (Element element = type; element instanceof TypeElement; element = element.getEnclosingElement()) {
+            TypeElement current = (TypeElement) element;
+            if (current.getNestingKind() == NestingKind.LOCAL || current.getNestingKind() == NestingKind.ANONYMOUS) return false;
+            if (current.getModifiers().contains(Modifier.PRIVATE)) return false;
+            if (!current.getModifiers().contains(Modifier.PUBLIC) && !elements.getPackageOf(current).getQualifiedName().contentEquals(packageName)) return false;
+        }
+        return true;
+    }
+
+    private void error( Element element , String message ) {
+        Messager messager = processingEnv.getMessager();
+        messager.printMessage(Diagnostic.Kind.ERROR, message, element);
+    }
+
+}
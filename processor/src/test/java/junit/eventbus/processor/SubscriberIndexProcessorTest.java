@@ -0,0 +1,185 @@
+package junit.eventbus.processor;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.ByteArrayOutputStream;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+import javax.tools.JavaCompiler;
+import javax.tools.ToolProvider;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import com.ricardojlrufino.eventbus.EventBus;
+import com.ricardojlrufino.eventbus.SubscriberIndex;
+import com.ricardojlrufino.eventbus.processor.SubscriberIndexProcessor;
+
+public class SubscriberIndexProcessorTest {
+
+  @Rule
+  public TemporaryFolder folder = new TemporaryFolder();
+
+  private static final String EVENT =
+      "package app;\n"
+    + "public class BoardEvent implements com.ricardojlrufino.eventbus.EventMessage {\n"
+    + "  public final String board;\n"
+    + "  public BoardEvent(String board) { this.board = board; }\n"
+    + "}\n";
+
+  private static final String VIEW =
+      "package app;\n"
+    + "import com.ricardojlrufino.eventbus.Subscribe;\n"
+    + "import com.ricardojlrufino.eventbus.dispatcher.DirectEventDispatcher;\n"
+    + "public class BoardView {\n"
+    + "  public final java.util.List<String> received = new java.util.ArrayList<>();\n"
+    + "  @Subscribe(dispatcher = DirectEventDispatcher.class)\n"
+    + "  public void onBoard(BoardEvent event) { received.add(event.board); }\n"
+    + "  @Subscribe\n"
+    + "  void onBoardAgain(BoardEvent event) { received.add(event.board + \" again\"); }\n"
+    + "}\n";
+
+  private static final String PRIVATE_VIEW =
+      "package app;\n"
+    + "import com.ricardojlrufino.eventbus.Subscribe;\n"
+    + "public class PrivateView {\n"
+    + "  @Subscribe\n"
+    + "  private void onBoard(BoardEvent event) { }\n"
+    + "}\n";
+
+  /**
+   * The generated index registers the methods with the dispatcher hint, and classes with private methods are left to the runtime scan.
+   */
+  @Test
+  public void testGeneratedIndex() throws Exception {
+    Path output = compile(true, EVENT, VIEW, PRIVATE_VIEW);
+
+    assertTrue(Files.exists(output.resolve("app/BoardView_SubscriberIndex.class")));
+    assertFalse(Files.exists(output.resolve("app/PrivateView_SubscriberIndex.class")));
+
+    String services = new String(Files.readAllBytes(output.resolve("META-INF/services/" + SubscriberIndex.class.getName())), StandardCharsets.UTF_8);
+    assertEquals("app.BoardView_SubscriberIndex\n", services);
+
+    try (URLClassLoader loader = new URLClassLoader(new URL[] { output.toUri().toURL() }, getClass().getClassLoader())) {
+      SubscriberIndex index = (SubscriberIndex) loader.loadClass("app.BoardView_SubscriberIndex").newInstance();
+
+      Map<Class<?>, SubscriberIndex.Subscription[]> subscriptions = new HashMap<>();
+      index.addSubscriptions(subscriptions);
+      assertEquals(2, subscriptions.get(loader.loadClass("app.BoardView")).length);
+
+      // Register through the index entries, as the EventBus does
+      Object view = loader.loadClass("app.BoardView").newInstance();
+      for (SubscriberIndex.Subscription subscription : subscriptions.get(view.getClass())) {
+        register(subscription, view);
+      }
+
+      Object event = loader.loadClass("app.BoardEvent").getConstructor(String.class).newInstance("board 1");
+      EventBus.notify((com.ricardojlrufino.eventbus.EventMessage) event);
+
+      // Direct dispatcher from the hint, so the handlers already ran
+      assertEquals(Arrays.asList("board 1", "board 1 again"), view.getClass().getField("received").get(view));
+    } finally {
+      EventBus.shutdown(true, 1000 * 30);
+    }
+  }
+
+  /**
+   * An incremental compile of another subscriber keeps the indexes already in the services file.
+   */
+  @Test
+  public void testIncrementalCompile() throws Exception {
+    Path output = compile(true, EVENT, VIEW);
+
+    String other =
+        "package app;\n"
+      + "public class OtherView {\n"
+      + "  @com.ricardojlrufino.eventbus.Subscribe\n"
+      + "  public void onBoard(BoardEvent event) { }\n"
+      + "}\n";
+    compile(true, output, other);
+
+    String services = new String(Files.readAllBytes(output.resolve("META-INF/services/" + SubscriberIndex.class.getName())), StandardCharsets.UTF_8);
+    assertEquals("app.BoardView_SubscriberIndex\napp.OtherView_SubscriberIndex\n", services);
+  }
+
+  @Test
+  public void testInvalidMethod() throws Exception {
+    String invalid =
+        "package app;\n"
+      + "public class InvalidView {\n"
+      + "  @com.ricardojlrufino.eventbus.Subscribe\n"
+      + "  public void onBoard(String event) { }\n"
+      + "}\n";
+
+    compile(false, invalid);
+  }
+
+  @SuppressWarnings({ "rawtypes", "unchecked" })
+  private static void register( SubscriberIndex.Subscription subscription , Object subscriber ) throws Exception {
+    // Fields are package-private in the bus, read them as the tests are in another package
+    Class type = (Class) field(subscription, "eventType");
+    java.util.function.Supplier<com.ricardojlrufino.eventbus.EventDispatcher> dispatcher =
+        (java.util.function.Supplier) field(subscription, "dispatcher");
+    java.util.function.Function<Object, com.ricardojlrufino.eventbus.EventHandler> binder =
+        (java.util.function.Function) field(subscription, "binder");
+
+    if (dispatcher != null) EventBus.configDispatcher(type, dispatcher.get());
+    EventBus.register(subscriber, type, binder.apply(subscriber));
+  }
+
+  private static Object field( Object target , String name ) throws Exception {
+    java.lang.reflect.Field field = target.getClass().getDeclaredField(name);
+    field.setAccessible(true);
+    return field.get(target);
+  }
+
+  private Path compile( boolean success , String... sources ) throws IOException {
+    return compile(success, folder.newFolder("classes").toPath(), sources);
+  }
+
+  /**
+   * Compiles into an existing output folder, which is also on the classpath, as an incremental build does.
+   */
+  private Path compile( boolean success , Path output , String... sources ) throws IOException {
+    Path src = folder.newFolder().toPath();
+
+    String[] files = new String[sources.length];
+    for (int i = 0; i < sources.length; i++) {
+      String name = sources[i].replaceAll("(?s).*public class (\\w+).*", "$1");
+      Path file = src.resolve("app/" + name + ".java");
+      Files.createDirectories(file.getParent());
+      Files.write(file, sources[i].getBytes(StandardCharsets.UTF_8));
+      files[i] = file.toString();
+    }
+
+    String classpath = new File(EventBus.class.getProtectionDomain().getCodeSource().getLocation().getPath()).getPath()
+                     + File.pathSeparator + output;
+
+    JavaCompiler compiler = ToolProvider.getSystemJavaCompiler();
+    ByteArrayOutputStream diagnostics = new ByteArrayOutputStream();
+
+    String[] options = { "-d", output.toString(), "-cp", classpath, "-processor", SubscriberIndexProcessor.class.getName(),
+                         "-processorpath", new File(SubscriberIndexProcessor.class.getProtectionDomain().getCodeSource().getLocation().getPath()).getPath() };
+
+    String[] arguments = Arrays.copyOf(options, options.length + files.length);
+    System.arraycopy(files, 0, arguments, options.length, files.length);
+
+    int result = compiler.run(null, diagnostics, diagnostics, arguments);
+    assertEquals(diagnostics.toString(), success, result == 0);
+
+    return output;
+  }
+
+}
@@ -0,0 +1,26 @@
+package com.ricardojlrufino.eventbus;
+
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Handler that receives the events in batches, for example to write them in bulk. <br/>
+ * The batches are created by {@link com.ricardojlrufino.eventbus.dispatcher.BatchingEventDispatcher}. With other dispatchers,
+ * each event is received as a batch of one.
+ *
+ * @param <E> Handler can handle events of type E
+ */
+public interface BatchEventHandler<E extends EventMessage> extends EventHandler<E> {
+
+  /**
+   * Handles a batch of events, in the order they were notified.
+   *
+   * @param events the events of the batch. The list belongs to the handler, it is not reused by the bus.
+   */
+  void onBatch(List<E> events);
+
+  @Override
+  default void onEvent(E event) {
+    onBatch(Collections.singletonList(event));
+  }
+}
@@ -0,0 +1,27 @@
+package com.ricardojlrufino.eventbus;
+
+/**
+ * Event that a handler can cancel, so the handlers that did not run yet are skipped. <br/>
+ * Combined with priorities ({@link EventBus#register(Class, EventHandler, int)}), a high priority handler can stop
+ * the lower priority ones. The handlers run in priority order with the dispatchers that run the handlers of an event
+ * one after the other (like {@link com.ricardojlrufino.eventbus.dispatcher.SingleThreadEventDispatcher}); with the
+ * parallel ones, only the handlers that did not start are skipped.
+ *
+ * <pre>
+ * public class EventSave implements CancellableEvent {
+ *     private volatile boolean cancelled;
+ *     public boolean isCancelled() { return cancelled; }
+ *     public void cancel() { cancelled = true; }
+ * }
+ * </pre>
+ */
+public interface CancellableEvent extends EventMessage {
+
+  boolean isCancelled();
+
+  /**
+   * Skip the handlers that did not run yet. Must be visible to the other threads (a volatile field).
+   */
+  void cancel();
+
+}
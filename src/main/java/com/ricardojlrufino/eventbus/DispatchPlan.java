@@ -0,0 +1,48 @@
+package com.ricardojlrufino.eventbus;
+
+/**
+ * Immutable snapshot of how an event type is delivered: the registered handlers, the resolved {@link EventDispatcher}
+ * and the {@link EventBusListener} passed to it. <br/>
+ * Plans are compiled by the {@link EventBus} when the registry changes, so {@link EventBus#notify(EventMessage)}
+ * only has to walk the array.
+ */
+final class DispatchPlan {
+
+    final EventHandler[] handlers;
+
+    final EventDispatcher dispatcher;
+
+    /** Set only when the dispatcher was configured with a key extractor, with the dispatcher as {@link #keyedDispatcher} */
+    final EventKeyExtractor keyExtractor;
+    final KeyedEventDispatcher keyedDispatcher;
+
+    final EventBusListener listener;
+    /** If a {@link EventBusListener} is registered, otherwise the before dispatch hooks are skipped */
+    final boolean monitored;
+
+    /** The type is a {@link PooledEventMessage}: the listener returns the event to its pool after the last handler */
+    final boolean pooled;
+    final EventPool pool;
+
+    /** Set only while metrics are enabled, the {@link #listener} then records into it, and into the meters of the handlers */
+    final EventBusMetrics.Meter meter;
+
+    /** Set by {@link EventBus#enableFlightRecorder()}: the notify emits the JFR publish event */
+    final boolean recorded;
+
+    DispatchPlan(EventHandler[] handlers, EventDispatcher dispatcher, EventKeyExtractor keyExtractor,
+                 EventBusListener listener, boolean monitored, boolean pooled, EventPool pool, EventBusMetrics metrics, Class<?> eventType,
+                 boolean recorded) {
+        this.handlers = handlers;
+        this.dispatcher = dispatcher;
+        this.keyExtractor = keyExtractor;
+        this.keyedDispatcher = (keyExtractor != null ? (KeyedEventDispatcher) dispatcher : null);
+        this.meter = (metrics != null ? metrics.typeMeter(eventType) : null);
+        this.listener = (meter != null ? metrics.listenerOf(meter, handlers, listener) : listener);
+        this.monitored = monitored;
+        this.pooled = pooled;
+        this.pool = pool;
+        this.recorded = recorded;
+    }
+
+}
@@ -0,0 +1,48 @@
+package com.ricardojlrufino.eventbus;
+
+/**
+ * Load of an {@link EventDispatcher}: queue depth, lag, throughput and busy time. <br/>
+ * Registered as a JMX MBean for each event type by {@link EventBus#registerMBeans()}, with the name
+ * <code>com.ricardojlrufino.eventbus:type=Dispatcher,name=&lt;event type&gt;</code> (<code>name=default</code> for the default dispatcher).
+ * Nothing is measured while it is not enabled.
+ *
+ * @see EventDispatcher#getMonitor()
+ */
+public interface DispatcherMXBean {
+
+  /**
+   * Class of the dispatcher
+   */
+  String getDispatcher();
+
+  boolean isEnabled();
+
+  void setEnabled(boolean enabled);
+
+  /**
+   * Events waiting for a thread of the dispatcher
+   */
+  int getQueueDepth();
+
+  /**
+   * How long the oldest waiting event is in the queue, 0 if the queue is empty
+   */
+  long getOldestEventAgeMillis();
+
+  /**
+   * Tasks run since enabled. A task runs one handler, all the handlers of an event, or a batch, depending on the dispatcher.
+   */
+  long getCompleted();
+
+  /**
+   * Tasks per second, over the last second (or since enabled)
+   */
+  double getThroughput();
+
+  /**
+   * Time spent running tasks over the last second (or since enabled): 1.0 is one thread busy all the time.
+   * Dispatchers with several threads can go above 1.0.
+   */
+  double getBusyRatio();
+
+}
@@ -1,46 +1,141 @@
 package com.ricardojlrufino.eventbus;
 
+import java.lang.ref.ReferenceQueue;
+import java.lang.ref.WeakReference;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collection;
 import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
-import java.util.concurrent.CopyOnWriteArrayList;
 import java.util.concurrent.CopyOnWriteArraySet;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.BiConsumer;
+import java.util.function.Supplier;
 
 import com.ricardojlrufino.eventbus.dispatcher.DebounceEventDispatcher;
+import com.ricardojlrufino.eventbus.dispatcher.PartitionedEventDispatcher;
 import com.ricardojlrufino.eventbus.dispatcher.SingleThreadEventDispatcher;
 
 public class EventBus {
     
-    private static EventBus instance;
+    /**
+     * Safely published singleton. {@link #get()} only takes the lock when the bus must be (re)created,
+     * so the {@link #notify(EventMessage)} path never contends on a monitor.
+     */
+    private static volatile EventBus instance;
+    
+    /**
+     * Priority of the handlers registered without one.
+     */
+    public static final int DEFAULT_PRIORITY = 0;
+    
+    private static final String DEFAULT_MBEAN = "default";
     
     private Map<Object, Set<EventHandler>> holderList;
+    
+    /**
+     * Holders registered with {@link #registerWeak(Object, Class, BiConsumer)}, each reference is its own key.
+     * Collected holders are enqueued on {@link #collectedHolders} and their handlers removed by the purge thread.
+     */
+    private Map<HolderReference, HolderReference> weakHolders;
+    private ReferenceQueue<Object> collectedHolders;
+    private Thread purgeThread;
     private Map<Class<? extends EventMessage>, Set<EventHandler>> handlers;
+    
+    /**
+     * Reverse index of {@link #handlers}: the types of each handler, so unregistering does not visit every type.
+     * Changed only holding the registry lock.
+     */
+    private Map<EventHandler, Set<Class<? extends EventMessage>>> handlerTypes;
+    
+    /**
+     * Priorities different of {@link #DEFAULT_PRIORITY}, used to sort the handlers when a plan is compiled.
+     */
+    private Map<EventHandler, Integer> handlerPriorities;
     private Map<Class<? extends EventMessage>, EventDispatcher> dispacherMap;
-    private List<EventBusListener> listeners;
+    private Map<Class<? extends EventMessage>, EventKeyExtractor> keyExtractorMap;
+    private Map<Class<? extends EventMessage>, EventPool> poolMap;
+    private EventBusListener[] listeners;
     
-    private EventDispatcher dispatcher;
+    /** Null while metrics are disabled */
+    private EventBusMetrics metrics;
+    
+    /** Set by {@link #enableFlightRecorder()} */
+    private boolean flightRecorder;
+    
+    /** Null until {@link #registerMBeans()} */
+    private EventBusMBeans mbeans;
+    
+    private volatile EventDispatcher dispatcher;
+    
+    /**
+     * Compiled {@link DispatchPlan} of each event type that was already notified.
+     * The registry methods swap the plan, so notify does not need to consult the maps above.
+     */
+    private ClassValue<AtomicReference<DispatchPlan>> plans;
+    private Set<Class<?>> resolvedTypes;
+    
+    /**
+     * The resolved types whose plan depends on each type: the type itself and its resolved subtypes.
+     */
+    private Map<Class<?>, Set<Class<?>>> dependentTypes;
     
     
     private EventBus() {
         handlers = new ConcurrentHashMap<>();
+        handlerTypes = new ConcurrentHashMap<>();
+        handlerPriorities = new ConcurrentHashMap<>();
+        dependentTypes = new ConcurrentHashMap<>();
         holderList = new ConcurrentHashMap<>();
+        weakHolders = new ConcurrentHashMap<>();
+        collectedHolders = new ReferenceQueue<>();
         dispacherMap = new ConcurrentHashMap<>();
-        listeners = new CopyOnWriteArrayList<>();
+        keyExtractorMap = new ConcurrentHashMap<>();
+        poolMap = new ConcurrentHashMap<>();
+        listeners = new EventBusListener[0];
+        listener = NO_LISTENER;
         dispatcher = SingleThreadEventDispatcher.newInstance();
+        resolvedTypes = ConcurrentHashMap.newKeySet();
+        plans = new ClassValue<AtomicReference<DispatchPlan>>() {
+            @Override
+            protected AtomicReference<DispatchPlan> computeValue( Class<?> type ) {
+                // Same lock of the registry methods, so a plan can't be compiled while it is being changed.
+                synchronized (EventBus.class) {
+                    resolvedTypes.add(type);
+                    for (Class<?> superType : flattenHierarchy(type)) {
+                        dependentTypes.computeIfAbsent(superType, key -> new HashSet<>()).add(type);
+                    }
+                    return new AtomicReference<>(compilePlan(type));
+                }
+            }
+        };
     }
     
-    public synchronized static EventBus get() {
-        if(instance == null) {
-            instance = new EventBus();
+    public static EventBus get() {
+        EventBus bus = instance;
+        if(bus == null) {
+            synchronized (EventBus.class) {
+                bus = instance;
+                if(bus == null) {
+                    instance = bus = new EventBus();
+                }
+            }
         }
-        return instance;
+        return bus;
     }
     
     public void setDefaultDispatcher( EventDispatcher dispatcher ) {
-        this.dispatcher = dispatcher;
+        synchronized (EventBus.class) {
+            this.dispatcher = dispatcher;
+            recompilePlans();
+            if (mbeans != null) mbeans.register(DEFAULT_MBEAN, dispatcher);
+        }
     }
     
     /**
@@ -54,7 +149,23 @@ public class EventBus {
      * @param handler   The {@link EventHandler} that will be handling the event.
      */
     public synchronized static <E extends EventMessage> EventHandler<E> register(Class<E> eventType,EventHandler<E> handler) {
+        return register(eventType, handler, DEFAULT_PRIORITY);
+    }
+    
+    /**
+     * Register Global Handler, with a priority. <br/>
+     * Handlers with a higher priority run first, the others keep the registration order. A handler of a {@link CancellableEvent}
+     * can stop the handlers after it. The order is resolved when a handler is registered or unregistered, not on notify. <br/>
+     * A handler has a single priority, for all its event types.
+     *
+     * @param eventType The {@link EventMessage} to be registered
+     * @param handler   The {@link EventHandler} that will be handling the event.
+     * @param priority  Higher runs first, the default is {@link #DEFAULT_PRIORITY}
+     */
+    public synchronized static <E extends EventMessage> EventHandler<E> register(Class<E> eventType,EventHandler<E> handler, int priority) {
        
+        if (priority != DEFAULT_PRIORITY) get().handlerPriorities.put(handler, priority);
+        
         Set<EventHandler> set = get().handlers.get(eventType);
         
         if(set == null) {
@@ -63,6 +174,9 @@ public class EventBus {
         }
         
         set.add(handler);
+        get().handlerTypes.computeIfAbsent(handler, key -> new HashSet<>()).add(eventType);
+        
+        get().refreshPlans(eventType);
 
         return handler;
     }
@@ -77,6 +191,20 @@ public class EventBus {
      * @return 
      */
     public synchronized static <E extends EventMessage> EventHandler<E> register(Object holder, Class<E> eventType,EventHandler<E> handler) {
+        return register(holder, eventType, handler, DEFAULT_PRIORITY);
+    }
+    
+    /**
+     * Register a new handler, linked to the holder, with a priority.
+     * @see #register(Class, EventHandler, int)
+     * @param <E>
+     * @param holder - Preferably the object that made the call to register the handler
+     * @param eventType
+     * @param handler
+     * @param priority Higher runs first
+     * @return 
+     */
+    public synchronized static <E extends EventMessage> EventHandler<E> register(Object holder, Class<E> eventType,EventHandler<E> handler, int priority) {
         
         // Add to holders...
         Set<EventHandler> set = get().holderList.get(holder);
@@ -87,7 +215,84 @@ public class EventBus {
         
         set.add(handler);
         
-        return register(eventType, handler);
+        return register(eventType, handler, priority);
+    }
+    
+    /**
+     * Register a new handler, linked to the holder by a weak reference. When the holder is garbage collected, its handlers
+     * are removed in background. <br/>
+     * The handler receives the holder, so it does not need to reference it: use a method reference of the holder class
+     * or a lambda that only uses its parameters. A handler that captures the holder (like <code>this::update</code> or
+     * <code>event -&gt; view.update()</code>) keeps it reachable, and it is never collected.
+     *
+     * <pre>
+     * EventBus.registerWeak(view, EventBoardChange.class, BoardView::onBoardChange);
+     * </pre>
+     * @param <H>
+     * @param <E>
+     * @param holder Object that owns the handler, {@link #unregisterHandlers(Object)} also works with it
+     * @param eventType
+     * @param handler Called with the holder and the event, while the holder is reachable
+     * @return the registered handler
+     */
+    public synchronized static <H, E extends EventMessage> EventHandler<E> registerWeak(H holder, Class<E> eventType, BiConsumer<? super H, ? super E> handler) {
+        EventBus bus = get();
+        
+        HolderReference reference = bus.weakHolders.computeIfAbsent(new HolderReference(holder, bus.collectedHolders), key -> key);
+        
+        EventHandler<E> weakHandler = new WeakHolderHandler<>(reference, handler);
+        reference.handlers.add(weakHandler);
+        
+        if (bus.purgeThread == null) {
+            bus.purgeThread = new Thread(bus::purgeCollectedHolders, "EventBusWeakHolders");
+            bus.purgeThread.setDaemon(true);
+            bus.purgeThread.start();
+        }
+        
+        return register(eventType, weakHandler);
+    }
+    
+    /**
+     * Purge thread: removes the handlers of the holders that were garbage collected.
+     */
+    private void purgeCollectedHolders() {
+        try {
+            while (true) {
+                HolderReference reference = (HolderReference) collectedHolders.remove();
+                
+                synchronized (EventBus.class) {
+                    // Stopped by shutdown, a new bus may exist
+                    if (instance != this) return;
+                    
+                    if (weakHolders.remove(reference) != null) {
+                        removeHandlers(reference.handlers);
+                    }
+                }
+            }
+        } catch (InterruptedException e) {
+            // Shutdown
+        }
+    }
+    
+    /**
+     * Register the methods of the subscriber annotated with {@link Subscribe}, using the subscriber as holder. <br/>
+     * The methods of each class are found only once, or at build time with a {@link SubscriberIndex}.
+     * Use {@link #unregisterHandlers(Object)} with the subscriber to remove them.
+     * @param subscriber
+     * @throws IllegalArgumentException if an annotated method does not have a single {@link EventMessage} parameter
+     */
+    @SuppressWarnings("unchecked")
+    public synchronized static void registerSubscriber(Object subscriber) {
+        for (SubscriberIndex.Subscription subscription : SubscriberMethods.of(subscriber.getClass())) {
+            Class<EventMessage> eventType = (Class<EventMessage>) subscription.eventType;
+            
+            // Hint of @Subscribe(dispatcher = ...)
+            if (subscription.dispatcher != null && !get().dispacherMap.containsKey(eventType)) {
+                configDispatcher(eventType, subscription.dispatcher.get());
+            }
+            
+            register(subscriber, eventType, (EventHandler<EventMessage>) subscription.binder.apply(subscriber), subscription.priority);
+        }
     }
     
     /**
@@ -96,56 +301,129 @@ public class EventBus {
      * @param holder
      */
     public synchronized static <E extends EventMessage> void unregisterHandlers(Object holder) {
-        Set<EventHandler> handlers = get().holderList.get(holder);
-        if(handlers != null) {
-            for (EventHandler eventHandler : handlers) {
-                unregisterHandler(eventHandler);
-            }
-            get().holderList.remove(holder);
+        EventBus bus = get();
+        List<EventHandler> removed = new ArrayList<>();
+        
+        Set<EventHandler> handlers = bus.holderList.remove(holder);
+        if(handlers != null) removed.addAll(handlers);
+        
+        HolderReference reference = bus.weakHolders.remove(new HolderReference(holder, null));
+        if(reference != null) {
+            removed.addAll(reference.handlers);
+            reference.clear();
         }
+        
+        bus.removeHandlers(removed);
     }
     
     
     /**
-     * 
+     * Unregister the handler from all the event types it was registered.
      * @param <E>
      * @param handler
      */
     public synchronized static <E extends EventMessage> void unregisterHandler(EventHandler<E> handler) {
-        Set<Class<? extends EventMessage>> keySet = get().handlers.keySet();
-        for (Class<? extends EventMessage> class1 : keySet) {
-            get().handlers.get(class1).remove(handler);
+        get().removeHandlers(Collections.singleton(handler));
+    }
+    
+    /**
+     * Removes the handlers, found by the reverse index. Each handler set is copied once (even if it loses several handlers)
+     * and each affected plan is compiled once. Must be called holding the registry lock.
+     */
+    private void removeHandlers(Collection<EventHandler> removed) {
+        Map<Class<? extends EventMessage>, List<EventHandler>> byType = new HashMap<>();
+        for (EventHandler handler : removed) {
+            Set<Class<? extends EventMessage>> types = handlerTypes.remove(handler);
+            if (types == null) continue;
+            
+            handlerPriorities.remove(handler);
+            if (metrics != null) metrics.remove(handler);
+            
+            for (Class<? extends EventMessage> type : types) {
+                byType.computeIfAbsent(type, key -> new ArrayList<>()).add(handler);
+            }
+        }
+        
+        List<Class<?>> changed = new ArrayList<>();
+        for (Map.Entry<Class<? extends EventMessage>, List<EventHandler>> entry : byType.entrySet()) {
+            Set<EventHandler> set = handlers.get(entry.getKey());
+            if (set != null && set.removeAll(entry.getValue())) changed.add(entry.getKey());
         }
+        
+        refreshPlans(changed);
     }
 
     
     /**
-     * Dispatches an {@link EventMessage} to registred handlers.
+     * Dispatches an {@link EventMessage} to registred handlers. <br/>
+     * Handlers registered for a superclass or an interface of the event are also called, after the handlers of the exact type with the same priority.
      *
      * @param event The {@link EventMessage} to be dispatched
      */
     @SuppressWarnings("unchecked")
     public static <E extends EventMessage> void notify(E event) {
-        Set<EventHandler> handlers = get().handlers.get(event.getClass());
+        EventBus bus = get();
         
-        EventBusListener busListener = get().listener;
-
-        if (handlers != null) {
-            // Check if as a custom dispatcher for this event.
-            EventDispatcher eventDispatcher = (EventDispatcher) get().dispacherMap.get(event.getClass());
+        DispatchPlan plan = bus.plans.get(event.getClass()).get();
+        EventHandler<E>[] handlers = plan.handlers;
+        EventDispatcher eventDispatcher = plan.dispatcher;
+        
+        EventBusListener busListener = plan.listener;
+        
+        if (plan.meter != null) {
+            plan.meter.published.increment();
+            plan.meter.clock.published(event, System.nanoTime());
+        }
+        
+        if (plan.recorded) FlightRecorderSupport.published(event, handlers.length);
 
-            // use default dispacher.
-            if (eventDispatcher == null) eventDispatcher = get().dispatcher;
+        if (handlers.length > 0) {
+            if (plan.meter != null) plan.meter.dispatched.add(handlers.length);
             
+            // Before any handler can run and release it
+            if (plan.pooled) ((PooledEventMessage) event).retain(handlers.length);
             
-            for (EventHandler<E> handler : handlers) {
-                busListener.beforeDispatch(event, handler, eventDispatcher);
-                eventDispatcher.dispatch(event, handler, busListener);
+            if (plan.monitored) {
+                for (EventHandler<E> handler : handlers) {
+                    busListener.beforeDispatch(event, handler, eventDispatcher);
+                }
+            }
+            if (plan.keyExtractor != null) {
+                plan.keyedDispatcher.dispatchAll(event, plan.keyExtractor.keyOf(event), handlers, busListener);
+            } else {
+                eventDispatcher.dispatchAll(event, handlers, busListener);
             }
         }else {
-            busListener.eventIgnored(event, get().dispatcher, "No Handler");
+            // Returned by the listener, as a dropped event
+            if (plan.pooled) ((PooledEventMessage) event).retain(1);
+            busListener.eventIgnored(event, eventDispatcher, "No Handler");
         }
     }
+    
+    /**
+     * Returns a reusable event from the pool of the eventType, to be filled and notified.
+     * It returns to the pool after its last handler ran.
+     * @see PooledEventMessage
+     * @param eventType Type configured with {@link #configPool(Class, Supplier, int)}
+     * @throws IllegalStateException if there is no pool for the type
+     */
+    @SuppressWarnings("unchecked")
+    public static <E extends PooledEventMessage> E obtain(Class<E> eventType) {
+        EventPool<E> pool = get().plans.get(eventType).get().pool;
+        if (pool == null) throw new IllegalStateException("No pool configured for " + eventType.getName());
+        return pool.obtain();
+    }
+    
+    /**
+     * Creates the pool used by {@link #obtain(Class)} for this event type.
+     * @param eventType The {@link PooledEventMessage} to be reused
+     * @param factory Creates new events when the pool is empty
+     * @param capacity Maximum of free events kept by the pool
+     */
+    public synchronized static <E extends PooledEventMessage> void configPool( Class<E> eventType , Supplier<E> factory , int capacity ) {
+        get().poolMap.put(eventType, new EventPool<>(factory, capacity));
+        get().refreshPlans(eventType);
+    }
 
     /**
      * Allow use a custom {@link EventDispatcher} to handle this event type.
@@ -155,16 +433,112 @@ public class EventBus {
      * @param eventType The {@link EventMessage} to be managed by the custom dispatcher
      * @param eventDispatcher 
      */
-    public static <E extends EventMessage>  void configDispatcher( Class<E> eventType , EventDispatcher eventDispatcher ) {
+    public synchronized static <E extends EventMessage>  void configDispatcher( Class<E> eventType , EventDispatcher eventDispatcher ) {
+        get().dispacherMap.put(eventType, eventDispatcher);
+        get().keyExtractorMap.remove(eventType);
+        get().refreshPlans(eventType);
+        if (get().mbeans != null) get().mbeans.register(eventType.getName(), eventDispatcher);
+    }
+    
+    /**
+     * Use a {@link KeyedEventDispatcher} to handle this event type, grouping the events by the key returned by keyExtractor.
+     * For example, to process all events of an account in order, while events of other accounts run in parallel.
+     * @see PartitionedEventDispatcher
+     * @param eventType The {@link EventMessage} to be managed by the custom dispatcher
+     * @param eventDispatcher 
+     * @param keyExtractor Returns the key of each event
+     */
+    public synchronized static <E extends EventMessage>  void configDispatcher( Class<E> eventType , KeyedEventDispatcher eventDispatcher , EventKeyExtractor<? super E> keyExtractor ) {
         get().dispacherMap.put(eventType, eventDispatcher);
+        get().keyExtractorMap.put(eventType, keyExtractor);
+        get().refreshPlans(eventType);
+        if (get().mbeans != null) get().mbeans.register(eventType.getName(), eventDispatcher);
     }
     
     /**
      * Add a listener for the events that happen on the EventBus. It can be used to implement a logging system for example.
      * @param listener
      */
-    public static void addBusListener(EventBusListener listener) {
-        get().listeners.add(listener);
+    public synchronized static void addBusListener(EventBusListener listener) {
+        EventBus bus = get();
+        EventBusListener[] array = Arrays.copyOf(bus.listeners, bus.listeners.length + 1);
+        array[array.length - 1] = listener;
+        bus.listeners = array;
+        bus.listener = new ListenerChain(array);
+        
+        // Every plan carries the listener
+        bus.recompilePlans();
+    }
+
+    /**
+     * Start counting the events of each type and handler, and measuring their run time and queue wait.
+     * Until it is called, the bus does not record anything.
+     * @return the metrics, use {@link EventBusMetrics#snapshot()} to read them
+     */
+    public synchronized static EventBusMetrics enableMetrics() {
+        EventBus bus = get();
+        if (bus.metrics == null) {
+            bus.metrics = new EventBusMetrics();
+            bus.recompilePlans();
+        }
+        return bus.metrics;
+    }
+    
+    /**
+     * Stop recording metrics, the values are discarded.
+     */
+    public synchronized static void disableMetrics() {
+        EventBus bus = get();
+        if (bus.metrics != null) {
+            bus.metrics = null;
+            bus.recompilePlans();
+        }
+    }
+    
+    /**
+     * @return the metrics of the bus, or null if they are not enabled
+     */
+    public static EventBusMetrics getMetrics() {
+        synchronized (EventBus.class) {
+            return get().metrics;
+        }
+    }
+
+    /**
+     * Emit Java Flight Recorder events: publish, enqueue, handler run (with its duration), ignored and handler error,
+     * in the category "eventbus4j". Each event is only created when it is enabled in the recording, so the cost
+     * without a recording is a check per callback. <br/>
+     * Needs Java 11+ and the multi-release JAR: on Java 8 (or from the plain classes directory) this does nothing,
+     * no listener is added and the plans are not changed.
+     * @return if the events are supported, false when the call did nothing
+     */
+    public synchronized static boolean enableFlightRecorder() {
+        if (!FlightRecorderSupport.isSupported()) return false;
+        
+        EventBus bus = get();
+        if (!bus.flightRecorder) {
+            bus.flightRecorder = true;
+            // Recompiles the plans
+            addBusListener(FlightRecorderSupport.newListener());
+        }
+        return true;
+    }
+
+    /**
+     * Register the {@link DispatcherMXBean} of each dispatcher in the platform MBean server, and start measuring them.
+     * The name is <code>com.ricardojlrufino.eventbus:type=Dispatcher,name=&lt;event type&gt;</code>, and
+     * <code>name=default</code> for the default dispatcher. Dispatchers configured later are also registered,
+     * until {@link #shutdown(boolean, long)}. Dispatchers without monitor ({@link EventDispatcher#getMonitor()}) are skipped.
+     */
+    public synchronized static void registerMBeans() {
+        EventBus bus = get();
+        if (bus.mbeans != null) return;
+        
+        bus.mbeans = new EventBusMBeans();
+        bus.mbeans.register(DEFAULT_MBEAN, bus.dispatcher);
+        for (Map.Entry<Class<? extends EventMessage>, EventDispatcher> entry : bus.dispacherMap.entrySet()) {
+            bus.mbeans.register(entry.getKey().getName(), entry.getValue());
+        }
     }
 
     /**
@@ -174,17 +548,134 @@ public class EventBus {
      */
     public static void shutdown(boolean wait, long millis) {
         
-        get().dispatcher.shutdown(wait, millis);
+        EventBus bus = get();
+        
+        bus.dispatcher.shutdown(wait, millis);
 
-        Collection<EventDispatcher> values = get().dispacherMap.values();
+        Collection<EventDispatcher> values = bus.dispacherMap.values();
         for (EventDispatcher eventDispatcher : values) {
             eventDispatcher.shutdown(wait, millis);
         }
         
-        get().handlers.clear();
-        get().dispacherMap.clear();
-        get().listeners.clear();
-        instance = null;
+        if (bus.purgeThread != null) bus.purgeThread.interrupt();
+        
+        synchronized (EventBus.class) {
+            if (bus.mbeans != null) bus.mbeans.unregisterAll();
+        }
+        
+        bus.handlers.clear();
+        bus.handlerTypes.clear();
+        bus.handlerPriorities.clear();
+        bus.weakHolders.clear();
+        bus.dispacherMap.clear();
+        bus.keyExtractorMap.clear();
+        bus.poolMap.clear();
+        bus.listeners = new EventBusListener[0];
+        bus.listener = NO_LISTENER;
+        
+        // A new bus is created on the next call to get()
+        synchronized (EventBus.class) {
+            if(instance == bus) instance = null;
+        }
+    }
+    
+    /**
+     * Resolves the handlers and the dispatcher of the eventType into a new {@link DispatchPlan}. <br/>
+     * Handlers are collected from the whole type hierarchy (nearest type first) and the dispatcher
+     * (with its key extractor) is the one configured for the nearest type, or the default.
+     */
+    private DispatchPlan compilePlan(Class<?> eventType) {
+        Set<EventHandler> resolved = new LinkedHashSet<>();
+        EventDispatcher eventDispatcher = null;
+        EventKeyExtractor keyExtractor = null;
+        
+        for (Class<?> type : flattenHierarchy(eventType)) {
+            Set<EventHandler> set = handlers.get(type);
+            if (set != null) resolved.addAll(set);
+            
+            // Check if as a custom dispatcher for this event.
+            if (eventDispatcher == null) {
+                eventDispatcher = dispacherMap.get(type);
+                keyExtractor = keyExtractorMap.get(type);
+            }
+        }
+        
+        // use default dispacher.
+        if (eventDispatcher == null) eventDispatcher = dispatcher;
+        
+        boolean pooled = PooledEventMessage.class.isAssignableFrom(eventType);
+        EventBusListener planListener = (pooled ? new ReleasingListener(listener) : listener);
+        
+        EventHandler[] sorted = resolved.toArray(new EventHandler[0]);
+        if (!handlerPriorities.isEmpty()) {
+            // Stable: same priority keeps the hierarchy and registration order
+            Arrays.sort(sorted, (first, second) -> Integer.compare(priorityOf(second), priorityOf(first)));
+        }
+        
+        return new DispatchPlan(sorted, eventDispatcher, keyExtractor,
+                                planListener, listener != NO_LISTENER, pooled, poolMap.get(eventType), metrics, eventType,
+                                flightRecorder);
+    }
+    
+    /**
+     * Replace all the compiled plans, after a change that affects every type. Must be called holding the registry lock.
+     */
+    private void recompilePlans() {
+        for (Class<?> type : resolvedTypes) {
+            plans.get(type).set(compilePlan(type));
+        }
+    }
+    
+    private int priorityOf(EventHandler handler) {
+        return handlerPriorities.getOrDefault(handler, DEFAULT_PRIORITY);
+    }
+    
+    /**
+     * Replace the compiled plans affected by a change on eventType: the type itself and all its subtypes.
+     * Must be called holding the registry lock.
+     */
+    private void refreshPlans(Class<?> eventType) {
+        refreshPlans(Collections.singletonList(eventType));
+    }
+    
+    /**
+     * Same of {@link #refreshPlans(Class)} for several types, each affected plan is compiled once.
+     */
+    private void refreshPlans(Collection<Class<?>> changed) {
+        Set<Class<?>> affected = new LinkedHashSet<>();
+        for (Class<?> eventType : changed) {
+            Set<Class<?>> dependents = dependentTypes.get(eventType);
+            if (dependents != null) affected.addAll(dependents);
+        }
+        
+        for (Class<?> type : affected) {
+            plans.get(type).set(compilePlan(type));
+        }
+    }
+    
+    /**
+     * Returns the type, its superclasses and then all its interfaces, that are {@link EventMessage}.
+     */
+    private static Set<Class<?>> flattenHierarchy(Class<?> eventType) {
+        Set<Class<?>> types = new LinkedHashSet<>();
+        for (Class<?> type = eventType; type != null; type = type.getSuperclass()) {
+            types.add(type);
+        }
+        
+        Class<?>[] classes = types.toArray(new Class<?>[0]);
+        for (Class<?> type : classes) {
+            addInterfaces(type, types);
+        }
+        
+        types.removeIf(type -> !EventMessage.class.isAssignableFrom(type));
+        
+        return types;
+    }
+    
+    private static void addInterfaces(Class<?> type, Set<Class<?>> types) {
+        for (Class<?> iface : type.getInterfaces()) {
+            if (types.add(iface)) addInterfaces(iface, types);
+        }
     }
     
     /**
@@ -195,53 +686,235 @@ public class EventBus {
     }
     
     
-    private EventBusListener listener = new EventBusListener() {
+    /**
+     * Listener used while no {@link EventBusListener} is registered, the monitoring hooks are empty methods.
+     */
+    private static final EventBusListener NO_LISTENER = new EventBusListener() {};
+    
+    /**
+     * Current listener passed to the dispatchers: {@link #NO_LISTENER} or a {@link ListenerChain} of the registered ones.
+     */
+    private EventBusListener listener;
+    
+    /**
+     * Fan-out to the registered listeners. The array is never modified, a new chain is created when a listener is added.
+     */
+    private static final class ListenerChain extends EventBusListener {
+        
+        private final EventBusListener[] listeners;
+        
+        ListenerChain(EventBusListener[] listeners) {
+            this.listeners = listeners;
+        }
         
         @Override
         public <E extends EventMessage> void beforeRun( E event , EventHandler<E> handler ) {
-            synchronized (listeners) {
-                for (EventBusListener eventBusListener : listeners) {
-                    eventBusListener.beforeRun(event, handler);
-                }
+            for (EventBusListener eventBusListener : listeners) {
+                eventBusListener.beforeRun(event, handler);
             }
         }
         
         @Override
         public <E extends EventMessage> void afterRun( E event , EventHandler<E> handler ) {
-            synchronized (listeners) {
-                for (EventBusListener eventBusListener : listeners) {
-                    eventBusListener.afterRun(event, handler);
-                }
+            for (EventBusListener eventBusListener : listeners) {
+                eventBusListener.afterRun(event, handler);
             }
         }
 
         @Override
         public <E extends EventMessage> void beforeDispatch( E event , EventHandler<E> handler , EventDispatcher eventDispatcher ) {
-            synchronized (listeners) {
-                for (EventBusListener eventBusListener : listeners) {
-                    eventBusListener.beforeDispatch(event, handler, eventDispatcher);
-                }
+            for (EventBusListener eventBusListener : listeners) {
+                eventBusListener.beforeDispatch(event, handler, eventDispatcher);
             }
         }
 
         @Override
         public <E extends EventMessage> void eventIgnored( E event , EventDispatcher eventDispatcher , String reason ) {
-            synchronized (listeners) {
-                for (EventBusListener eventBusListener : listeners) {
-                    eventBusListener.eventIgnored(event, eventDispatcher, reason);
-                }
+            for (EventBusListener eventBusListener : listeners) {
+                eventBusListener.eventIgnored(event, eventDispatcher, reason);
+            }
+        }
+
+        @Override
+        public <E extends EventMessage> void eventIgnored( E event , EventDispatcher eventDispatcher , String reason , int handlers ) {
+            for (EventBusListener eventBusListener : listeners) {
+                eventBusListener.eventIgnored(event, eventDispatcher, reason, handlers);
             }
         }
         
+        @Override
         public <E extends EventMessage> void onError(Exception e, E event, EventHandler<E> handler) {
-            
-            synchronized (listeners) {
-                for (EventBusListener eventBusListener : listeners) {
-                    eventBusListener.onError(e, event, handler);
-                }
+            for (EventBusListener eventBusListener : listeners) {
+                eventBusListener.onError(e, event, handler);
             }
-        };
-    };
+        }
+        
+        @Override
+        public <E extends EventMessage> void eventCancelled( E event , EventHandler<E> handler ) {
+            for (EventBusListener eventBusListener : listeners) {
+                eventBusListener.eventCancelled(event, handler);
+            }
+        }
+
+        @Override
+        public <E extends EventMessage> void beforeRunBatch( List<E> events , BatchEventHandler<E> handler ) {
+            for (EventBusListener eventBusListener : listeners) {
+                eventBusListener.beforeRunBatch(events, handler);
+            }
+        }
+
+        @Override
+        public <E extends EventMessage> void afterRunBatch( List<E> events , BatchEventHandler<E> handler ) {
+            for (EventBusListener eventBusListener : listeners) {
+                eventBusListener.afterRunBatch(events, handler);
+            }
+        }
+
+        @Override
+        public <E extends EventMessage> void onBatchError( Exception e , List<E> events , BatchEventHandler<E> handler ) {
+            for (EventBusListener eventBusListener : listeners) {
+                eventBusListener.onBatchError(e, events, handler);
+            }
+        }
+    }
+
+    /**
+     * Listener of the {@link PooledEventMessage} types: releases the event after each handler, or each handler it was
+     * dropped for, then it returns to its pool after the last one. The event is released even if the listener throws.
+     */
+    private static final class ReleasingListener extends EventBusListener {
+        
+        private final EventBusListener delegate;
+        
+        ReleasingListener(EventBusListener delegate) {
+            this.delegate = delegate;
+        }
+        
+        @Override
+        public <E extends EventMessage> void beforeRun( E event , EventHandler<E> handler ) {
+            try {
+                delegate.beforeRun(event, handler);
+            } catch (RuntimeException e) {
+                // The handler and afterRun will not run
+                ((PooledEventMessage) event).release();
+                throw e;
+            }
+        }
+        
+        @Override
+        public <E extends EventMessage> void afterRun( E event , EventHandler<E> handler ) {
+            try {
+                delegate.afterRun(event, handler);
+            } finally {
+                ((PooledEventMessage) event).release();
+            }
+        }
+        
+        @Override
+        public <E extends EventMessage> void beforeDispatch( E event , EventHandler<E> handler , EventDispatcher eventDispatcher ) {
+            delegate.beforeDispatch(event, handler, eventDispatcher);
+        }
+        
+        @Override
+        public <E extends EventMessage> void eventIgnored( E event , EventDispatcher eventDispatcher , String reason ) {
+            try {
+                delegate.eventIgnored(event, eventDispatcher, reason);
+            } finally {
+                ((PooledEventMessage) event).release();
+            }
+        }
+        
+        @Override
+        public <E extends EventMessage> void eventIgnored( E event , EventDispatcher eventDispatcher , String reason , int handlers ) {
+            try {
+                delegate.eventIgnored(event, eventDispatcher, reason, handlers);
+            } finally {
+                ((PooledEventMessage) event).release(handlers);
+            }
+        }
+        
+        @Override
+        public <E extends EventMessage> void onError( Exception e , E event , EventHandler<E> handler ) {
+            delegate.onError(e, event, handler);
+        }
+        
+        @Override
+        public <E extends EventMessage> void eventCancelled( E event , EventHandler<E> handler ) {
+            try {
+                delegate.eventCancelled(event, handler);
+            } finally {
+                ((PooledEventMessage) event).release();
+            }
+        }
+        
+        @Override
+        public <E extends EventMessage> void beforeRunBatch( List<E> events , BatchEventHandler<E> handler ) {
+            delegate.beforeRunBatch(events, handler);
+        }
+        
+        @Override
+        public <E extends EventMessage> void afterRunBatch( List<E> events , BatchEventHandler<E> handler ) {
+            delegate.afterRunBatch(events, handler);
+            for (E event : events) {
+                ((PooledEventMessage) event).release();
+            }
+        }
+        
+        @Override
+        public <E extends EventMessage> void onBatchError( Exception e , List<E> events , BatchEventHandler<E> handler ) {
+            delegate.onBatchError(e, events, handler);
+        }
+    }
+
+    /**
+     * Weak reference to a holder of {@link #registerWeak(Object, Class, BiConsumer)}, with its handlers.
+     * Equal to another reference of the same holder (by identity) while the holder is reachable.
+     */
+    private static final class HolderReference extends WeakReference<Object> {
+        
+        final Set<EventHandler> handlers = newListImpl();
+        private final int hash;
+        
+        HolderReference(Object holder, ReferenceQueue<Object> queue) {
+            super(holder, queue);
+            this.hash = System.identityHashCode(holder);
+        }
+        
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+        
+        @Override
+        public boolean equals( Object obj ) {
+            if (obj == this) return true;
+            if (!(obj instanceof HolderReference)) return false;
+            
+            Object holder = get();
+            return holder != null && holder == ((HolderReference) obj).get();
+        }
+    }
+    
+    /**
+     * Handler that calls the holder while it was not collected.
+     */
+    private static final class WeakHolderHandler<H, E extends EventMessage> implements EventHandler<E> {
+        
+        private final HolderReference reference;
+        private final BiConsumer<? super H, ? super E> handler;
+        
+        WeakHolderHandler(HolderReference reference, BiConsumer<? super H, ? super E> handler) {
+            this.reference = reference;
+            this.handler = handler;
+        }
+        
+        @SuppressWarnings("unchecked")
+        @Override
+        public void onEvent( E event ) {
+            H holder = (H) reference.get();
+            if (holder != null) handler.accept(holder, event);
+        }
+    }
 
     /**
      * Returns the registered handlers for the eventType
@@ -1,5 +1,7 @@
 package com.ricardojlrufino.eventbus;
 
+import java.util.List;
+
 /**
  * Listerer for events of bus.
  * Use to implment time mensurements or logging. 
@@ -33,6 +35,18 @@ public abstract class EventBusListener {
      */
     public <E extends EventMessage> void eventIgnored( E event, EventDispatcher eventDispatcher, String reason ) {};
 
+    /**
+     * Like {@link #eventIgnored(EventMessage, EventDispatcher, String)}, when the dispatcher drops the event for several
+     * handlers at once (a task of {@link EventDispatcher#dispatchAll(EventMessage, EventHandler[], EventBusListener)}).
+     * Dispatchers must use it then, so the bus returns a {@link PooledEventMessage} after the last handler.
+     * By default it calls {@link #eventIgnored(EventMessage, EventDispatcher, String)} once.
+     *
+     * @param handlers Number of handlers that will not run the event
+     */
+    public <E extends EventMessage> void eventIgnored( E event, EventDispatcher eventDispatcher, String reason, int handlers ) {
+        eventIgnored(event, eventDispatcher, reason);
+    }
+
     
     /**
      * Listener for exceptions in handler.
@@ -43,4 +57,31 @@ public abstract class EventBusListener {
      */
     public <E extends EventMessage> void onError( Exception e , E event , EventHandler<E> handler ) {};
 
+    /**
+     * Called instead of running the handler, when the {@link CancellableEvent} was cancelled by a previous handler.
+     * @param <E>
+     * @param event
+     * @param handler
+     */
+    public <E extends EventMessage> void eventCancelled( E event , EventHandler<E> handler ) {};
+
+    /**
+     * Called before a {@link BatchEventHandler} runs a batch, instead of {@link #beforeRun(EventMessage, EventHandler)}.
+     * @param <E>
+     * @param events
+     * @param handler
+     */
+    public <E extends EventMessage> void beforeRunBatch( List<E> events , BatchEventHandler<E> handler ) {};
+
+    public <E extends EventMessage> void afterRunBatch( List<E> events , BatchEventHandler<E> handler ) {};
+
+    /**
+     * Listener for exceptions in a batch handler.
+     * @param <E>
+     * @param e
+     * @param events
+     * @param handler
+     */
+    public <E extends EventMessage> void onBatchError( Exception e , List<E> events , BatchEventHandler<E> handler ) {};
+
 }
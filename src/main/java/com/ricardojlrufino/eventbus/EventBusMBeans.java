@@ -0,0 +1,76 @@
+package com.ricardojlrufino.eventbus;
+
+import java.lang.management.ManagementFactory;
+import java.util.HashMap;
+import java.util.Map;
+
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+
+/**
+ * The {@link DispatcherMXBean}s registered by {@link EventBus#registerMBeans()}, one for each event type with a dispatcher.
+ * Used holding the registry lock.
+ */
+final class EventBusMBeans {
+
+    static final String DOMAIN = "com.ricardojlrufino.eventbus";
+
+    private final MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+
+    private final Map<ObjectName, DispatcherMXBean> registered = new HashMap<>();
+
+    /**
+     * Registers (or replaces) the monitor of the dispatcher, and enables it.
+     * @param name Event type name, or "default"
+     */
+    void register( String name , EventDispatcher dispatcher ) {
+        ObjectName objectName = objectName(name);
+        unregister(objectName);
+
+        DispatcherMXBean monitor = dispatcher.getMonitor();
+        if (monitor == null) return;
+
+        monitor.setEnabled(true);
+        try {
+            // Left by a bus that was not shut down
+            if (server.isRegistered(objectName)) server.unregisterMBean(objectName);
+
+            server.registerMBean(monitor, objectName);
+            registered.put(objectName, monitor);
+        } catch (JMException e) {
+            throw new IllegalStateException("Can't register the MBean " + objectName, e);
+        }
+    }
+
+    void unregisterAll() {
+        for (Map.Entry<ObjectName, DispatcherMXBean> entry : registered.entrySet()) {
+            entry.getValue().setEnabled(false);
+            try {
+                server.unregisterMBean(entry.getKey());
+            } catch (JMException e) {
+                // Already unregistered
+            }
+        }
+        registered.clear();
+    }
+
+    private void unregister( ObjectName objectName ) {
+        if (registered.remove(objectName) == null) return;
+
+        try {
+            server.unregisterMBean(objectName);
+        } catch (JMException e) {
+            // Already unregistered
+        }
+    }
+
+    static ObjectName objectName( String name ) {
+        try {
+            return new ObjectName(DOMAIN + ":type=Dispatcher,name=" + name);
+        } catch (JMException e) {
+            throw new IllegalArgumentException(name, e);
+        }
+    }
+
+}
@@ -0,0 +1,384 @@
+package com.ricardojlrufino.eventbus;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Counters and latency histograms of the bus, for each event type and each handler. Enabled by {@link EventBus#enableMetrics()}. <br/>
+ * Counters are {@link LongAdder}s and histograms are {@link LatencyHistogram}s, so recording does not take locks.
+ * The cost per event is a few <code>System.nanoTime()</code> calls and no allocation, and nothing while metrics are disabled. <br/>
+ *
+ * Queue wait is the time from {@link EventBus#notify(EventMessage)} to the start of the handler, run time is the time in the handler.
+ * Batches of a {@link BatchEventHandler} record one run time per batch and no queue wait. <br/>
+ * The publish times are kept in a table of {@value PublishClock#SIZE} slots per event type, so the queue wait is a sample:
+ * an event whose slot was taken by a later event before its handlers started is not recorded.
+ */
+public final class EventBusMetrics {
+
+    private final Map<Class<?>, Meter> types = new ConcurrentHashMap<>();
+    private final Map<EventHandler<?>, Meter> handlers = new ConcurrentHashMap<>();
+
+    /** Start time of the handlers running on each thread, a stack because handlers can notify with a direct dispatcher */
+    private static final ThreadLocal<RunClock> CLOCK = ThreadLocal.withInitial(RunClock::new);
+
+    /** Records of a handler that is not in the plan, not part of any snapshot */
+    private static final Meter UNKNOWN = new Meter(null);
+
+    EventBusMetrics() {
+    }
+
+    Meter typeMeter( Class<?> eventType ) {
+        return types.computeIfAbsent(eventType, type -> new Meter(new PublishClock()));
+    }
+
+    /**
+     * Drops the values of an unregistered handler. Called before the plans are compiled again: the runs still in flight
+     * record into the meter held by the old plan, they don't add the handler back.
+     */
+    void remove( EventHandler<?> handler ) {
+        handlers.remove(handler);
+    }
+
+    /**
+     * Listener that records the events of a type, created once for each {@link DispatchPlan}. The meters of the handlers
+     * are resolved here, one per handler of the plan.
+     */
+    EventBusListener listenerOf( Meter type , EventHandler<?>[] planHandlers , EventBusListener delegate ) {
+        Meter[] meters = new Meter[planHandlers.length];
+        for (int i = 0; i < planHandlers.length; i++) {
+            meters[i] = handlers.computeIfAbsent(planHandlers[i], key -> new Meter(null));
+        }
+        return new MeteredListener(type, planHandlers, meters, delegate);
+    }
+
+    /**
+     * Copy of the current values.
+     */
+    public Snapshot snapshot() {
+        Map<Class<?>, Stats> typeStats = new LinkedHashMap<>();
+        for (Map.Entry<Class<?>, Meter> entry : types.entrySet()) {
+            typeStats.put(entry.getKey(), entry.getValue().snapshot());
+        }
+
+        Map<EventHandler<?>, Stats> handlerStats = new LinkedHashMap<>();
+        for (Map.Entry<EventHandler<?>, Meter> entry : handlers.entrySet()) {
+            handlerStats.put(entry.getKey(), entry.getValue().snapshot());
+        }
+
+        return new Snapshot(typeStats, handlerStats);
+    }
+
+    /**
+     * Live values of an event type or a handler.
+     */
+    static final class Meter {
+        final LongAdder published = new LongAdder();
+        final LongAdder dispatched = new LongAdder();
+        final LongAdder completed = new LongAdder();
+        final LongAdder ignored = new LongAdder();
+        final LongAdder failed = new LongAdder();
+        final LongAdder cancelled = new LongAdder();
+        final LatencyHistogram runTime = new LatencyHistogram();
+        final LatencyHistogram queueWait = new LatencyHistogram();
+        /** Only for an event type */
+        final PublishClock clock;
+
+        Meter(PublishClock clock) {
+            this.clock = clock;
+        }
+
+        Stats snapshot() {
+            return new Stats(published.sum(), dispatched.sum(), completed.sum(), ignored.sum(), failed.sum(), cancelled.sum(),
+                             runTime.snapshot(), queueWait.snapshot());
+        }
+    }
+
+    /**
+     * Values of an event type or a handler. For a handler, published, dispatched and ignored are 0.
+     */
+    public static final class Stats {
+
+        private final long published;
+        private final long dispatched;
+        private final long completed;
+        private final long ignored;
+        private final long failed;
+        private final long cancelled;
+        private final LatencyHistogram.Snapshot runTime;
+        private final LatencyHistogram.Snapshot queueWait;
+
+        Stats(long published, long dispatched, long completed, long ignored, long failed, long cancelled,
+              LatencyHistogram.Snapshot runTime, LatencyHistogram.Snapshot queueWait) {
+            this.published = published;
+            this.dispatched = dispatched;
+            this.completed = completed;
+            this.ignored = ignored;
+            this.failed = failed;
+            this.cancelled = cancelled;
+            this.runTime = runTime;
+            this.queueWait = queueWait;
+        }
+
+        /** Events notified */
+        public long getPublished() {
+            return published;
+        }
+
+        /** Handler runs given to the dispatcher (one per handler of each event) */
+        public long getDispatched() {
+            return dispatched;
+        }
+
+        /** Handler runs finished, including the failed ones */
+        public long getCompleted() {
+            return completed;
+        }
+
+        /** Events ignored by the dispatcher, or without handlers */
+        public long getIgnored() {
+            return ignored;
+        }
+
+        /** Handler runs that threw an exception */
+        public long getFailed() {
+            return failed;
+        }
+
+        /** Handler runs skipped by a {@link CancellableEvent} */
+        public long getCancelled() {
+            return cancelled;
+        }
+
+        public LatencyHistogram.Snapshot getRunTime() {
+            return runTime;
+        }
+
+        public LatencyHistogram.Snapshot getQueueWait() {
+            return queueWait;
+        }
+
+        @Override
+        public String toString() {
+            return "published=" + published + " dispatched=" + dispatched + " completed=" + completed + " ignored=" + ignored
+                   + " failed=" + failed + " cancelled=" + cancelled + " run[" + runTime + "] wait[" + queueWait + "]";
+        }
+    }
+
+    /**
+     * Values of all the event types and handlers, at the time of {@link EventBusMetrics#snapshot()}.
+     */
+    public static final class Snapshot {
+
+        private final Map<Class<?>, Stats> types;
+        private final Map<EventHandler<?>, Stats> handlers;
+
+        Snapshot(Map<Class<?>, Stats> types, Map<EventHandler<?>, Stats> handlers) {
+            this.types = Collections.unmodifiableMap(types);
+            this.handlers = Collections.unmodifiableMap(handlers);
+        }
+
+        public Map<Class<?>, Stats> getTypes() {
+            return types;
+        }
+
+        public Map<EventHandler<?>, Stats> getHandlers() {
+            return handlers;
+        }
+
+        @Override
+        public String toString() {
+            StringBuilder builder = new StringBuilder();
+            for (Map.Entry<Class<?>, Stats> entry : types.entrySet()) {
+                builder.append(entry.getKey().getName()).append(": ").append(entry.getValue()).append('\n');
+            }
+            for (Map.Entry<EventHandler<?>, Stats> entry : handlers.entrySet()) {
+                builder.append("  ").append(entry.getKey()).append(": ").append(entry.getValue()).append('\n');
+            }
+            return builder.toString();
+        }
+    }
+
+    /**
+     * Publish time of the recent events of a type, in the slot of their identity hash code. <br/>
+     * The slot keeps the hash code and not the event, so it does not retain events. A writer clears the key before it
+     * changes the time, and a reader checks the key before and after it reads the time.
+     */
+    static final class PublishClock {
+        static final int SIZE = 1024;
+
+        private final AtomicIntegerArray keys = new AtomicIntegerArray(SIZE);
+        private final AtomicLongArray times = new AtomicLongArray(SIZE);
+
+        void published( EventMessage event , long nanos ) {
+            int key = System.identityHashCode(event);
+            int slot = key & (SIZE - 1);
+
+            keys.set(slot, 0);
+            times.set(slot, nanos);
+            keys.set(slot, key);
+        }
+
+        /**
+         * @return the publish time of the event, or 0 if its slot was taken by another event
+         */
+        long publishedNanos( EventMessage event ) {
+            int key = System.identityHashCode(event);
+            int slot = key & (SIZE - 1);
+
+            if (key == 0 || keys.get(slot) != key) return 0;
+            long nanos = times.get(slot);
+            return (keys.get(slot) == key ? nanos : 0);
+        }
+    }
+
+    private static final class RunClock {
+        private long[] starts = new long[8];
+        private int depth;
+
+        void push( long nanos ) {
+            if (depth == starts.length) starts = Arrays.copyOf(starts, depth * 2);
+            starts[depth++] = nanos;
+        }
+
+        long pop() {
+            return (depth > 0 ? starts[--depth] : System.nanoTime());
+        }
+    }
+
+    /**
+     * Records the callbacks of the events of a type, then calls the listener of the plan.
+     */
+    private static final class MeteredListener extends EventBusListener {
+
+        /** Handlers found by a scan of the array, a map above this */
+        private static final int SCAN = 8;
+
+        private final Meter type;
+        private final EventHandler<?>[] handlers;
+        private final Meter[] meters;
+        private final Map<EventHandler<?>, Meter> byHandler;
+        private final EventBusListener delegate;
+
+        MeteredListener(Meter type, EventHandler<?>[] handlers, Meter[] meters, EventBusListener delegate) {
+            this.type = type;
+            this.handlers = handlers;
+            this.meters = meters;
+            this.delegate = delegate;
+
+            if (handlers.length > SCAN) {
+                byHandler = new IdentityHashMap<>(handlers.length * 2);
+                for (int i = 0; i < handlers.length; i++) {
+                    byHandler.put(handlers[i], meters[i]);
+                }
+            } else {
+                byHandler = null;
+            }
+        }
+
+        /**
+         * @return the meter of a handler of the plan, or a meter that is not kept for any other handler
+         */
+        private Meter handlerMeter( EventHandler<?> handler ) {
+            if (byHandler != null) {
+                Meter meter = byHandler.get(handler);
+                return (meter != null ? meter : UNKNOWN);
+            }
+            for (int i = 0; i < handlers.length; i++) {
+                if (handlers[i] == handler) return meters[i];
+            }
+            return UNKNOWN;
+        }
+
+        @Override
+        public <E extends EventMessage> void beforeRun( E event , EventHandler<E> handler ) {
+            delegate.beforeRun(event, handler);
+
+            long now = System.nanoTime();
+            long publishedNanos = type.clock.publishedNanos(event);
+            if (publishedNanos != 0) {
+                type.queueWait.record(now - publishedNanos);
+                handlerMeter(handler).queueWait.record(now - publishedNanos);
+            }
+            CLOCK.get().push(now);
+        }
+
+        @Override
+        public <E extends EventMessage> void afterRun( E event , EventHandler<E> handler ) {
+            long elapsed = System.nanoTime() - CLOCK.get().pop();
+
+            Meter meter = handlerMeter(handler);
+            type.runTime.record(elapsed);
+            type.completed.increment();
+            meter.runTime.record(elapsed);
+            meter.completed.increment();
+
+            delegate.afterRun(event, handler);
+        }
+
+        @Override
+        public <E extends EventMessage> void beforeDispatch( E event , EventHandler<E> handler , EventDispatcher eventDispatcher ) {
+            delegate.beforeDispatch(event, handler, eventDispatcher);
+        }
+
+        @Override
+        public <E extends EventMessage> void eventIgnored( E event , EventDispatcher eventDispatcher , String reason ) {
+            type.ignored.increment();
+            delegate.eventIgnored(event, eventDispatcher, reason);
+        }
+
+        @Override
+        public <E extends EventMessage> void eventIgnored( E event , EventDispatcher eventDispatcher , String reason , int handlers ) {
+            type.ignored.increment();
+            delegate.eventIgnored(event, eventDispatcher, reason, handlers);
+        }
+
+        @Override
+        public <E extends EventMessage> void onError( Exception e , E event , EventHandler<E> handler ) {
+            type.failed.increment();
+            handlerMeter(handler).failed.increment();
+            delegate.onError(e, event, handler);
+        }
+
+        @Override
+        public <E extends EventMessage> void eventCancelled( E event , EventHandler<E> handler ) {
+            type.cancelled.increment();
+            handlerMeter(handler).cancelled.increment();
+            delegate.eventCancelled(event, handler);
+        }
+
+        @Override
+        public <E extends EventMessage> void beforeRunBatch( List<E> events , BatchEventHandler<E> handler ) {
+            delegate.beforeRunBatch(events, handler);
+            CLOCK.get().push(System.nanoTime());
+        }
+
+        @Override
+        public <E extends EventMessage> void afterRunBatch( List<E> events , BatchEventHandler<E> handler ) {
+            long elapsed = System.nanoTime() - CLOCK.get().pop();
+
+            Meter meter = handlerMeter(handler);
+            type.runTime.record(elapsed);
+            type.completed.add(events.size());
+            meter.runTime.record(elapsed);
+            meter.completed.add(events.size());
+
+            delegate.afterRunBatch(events, handler);
+        }
+
+        @Override
+        public <E extends EventMessage> void onBatchError( Exception e , List<E> events , BatchEventHandler<E> handler ) {
+            type.failed.add(events.size());
+            handlerMeter(handler).failed.add(events.size());
+            delegate.onBatchError(e, events, handler);
+        }
+    }
+
+}
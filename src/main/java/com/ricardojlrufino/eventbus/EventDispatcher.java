@@ -2,7 +2,8 @@ package com.ricardojlrufino.eventbus;
 
 /**
  * This class is responsible to dispatch events.
- * The standard implementation runs the events on the same thread where the event was generated.
+ * The default implementation ({@link com.ricardojlrufino.eventbus.dispatcher.SingleThreadEventDispatcher}) runs the events on a background thread,
+ * {@link com.ricardojlrufino.eventbus.dispatcher.DirectEventDispatcher} runs them on the same thread where the event was generated.
  */
 public interface EventDispatcher {
     
@@ -13,6 +14,21 @@ public interface EventDispatcher {
      */
     public <E extends EventMessage> void dispatch(E event, EventHandler<E> handler, EventBusListener busListener );
     
+    /**
+     * Dispatches an {@link EventMessage} to all handlers of it's type. <br/>
+     * Implementations that queue the events should override this method to queue a single task, that runs the handlers in order.
+     * The default implementation calls {@link #dispatch(EventMessage, EventHandler, EventBusListener)} for each handler.
+     *
+     * @param event The {@link EventMessage} to be dispatched
+     * @param handlers Handlers of the event, in the order they must run. The array is shared and must not be modified.
+     * @param busListener
+     */
+    default <E extends EventMessage> void dispatchAll(E event, EventHandler<E>[] handlers, EventBusListener busListener ) {
+        for (EventHandler<E> handler : handlers) {
+            dispatch(event, handler, busListener);
+        }
+    }
+    
     
     /**
      * Initiates an orderly shutdown in which previously submitted
@@ -20,6 +36,14 @@ public interface EventDispatcher {
      * Invocation has no additional effect if already shut down.
      */
     void shutdown( boolean wait , long millis);
+    
+    /**
+     * Stats of this dispatcher, exposed over JMX by {@link EventBus#registerMBeans()}.
+     * @return null if the dispatcher does not measure its load
+     */
+    default DispatcherMXBean getMonitor() {
+        return null;
+    }
 
 
 
@@ -0,0 +1,17 @@
+package com.ricardojlrufino.eventbus;
+
+/**
+ * Extracts the key of an event, for example the id of the account it belongs to. <br/>
+ * {@link KeyedEventDispatcher}s use the key to group the events: events with the same key keep their order.
+ *
+ * @param <E> Type of the events
+ * @see EventBus#configDispatcher(Class, KeyedEventDispatcher, EventKeyExtractor)
+ */
+public interface EventKeyExtractor<E extends EventMessage> {
+
+  /**
+   * @param event the {@link EventMessage} being dispatched.
+   * @return the key of the event. Must be consistent with equals/hashCode.
+   */
+  Object keyOf(E event);
+}
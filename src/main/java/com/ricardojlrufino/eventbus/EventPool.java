@@ -0,0 +1,48 @@
+package com.ricardojlrufino.eventbus;
+
+import java.util.function.Supplier;
+
+/**
+ * Pool of reusable events of one type. <br/>
+ * Events are returned by the {@link EventBus} after the last handler ran. When the pool is empty a new event is created,
+ * and when it is full the returned event is left to the garbage collector.
+ *
+ * @param <E> Type of the events
+ * @see EventBus#configPool(Class, Supplier, int)
+ */
+public final class EventPool<E extends PooledEventMessage> {
+
+    private final Supplier<E> factory;
+    private final MpmcArrayQueue<E> free;
+
+    /**
+     * @param factory Creates new events when the pool is empty
+     * @param capacity Maximum of free events kept by the pool
+     */
+    public EventPool(Supplier<E> factory, int capacity) {
+        this.factory = factory;
+        this.free = new MpmcArrayQueue<>(capacity);
+    }
+
+    public E obtain() {
+        E event = free.poll();
+        if (event == null) {
+            event = factory.get();
+            event.pool = this;
+        }
+        return event;
+    }
+
+    /**
+     * Number of free events in the pool
+     */
+    public int available() {
+        return free.size();
+    }
+
+    @SuppressWarnings("unchecked")
+    void release( PooledEventMessage event ) {
+        free.offer((E) event);
+    }
+
+}
@@ -0,0 +1,28 @@
+package com.ricardojlrufino.eventbus;
+
+/**
+ * Java Flight Recorder events of the bus, enabled by {@link EventBus#enableFlightRecorder()}. <br/>
+ * This is the Java 8 version, without JFR. The multi-release JAR has a version for Java 11+ (src/main/java11)
+ * with the events.
+ */
+final class FlightRecorderSupport {
+
+    private FlightRecorderSupport() {
+    }
+
+    static boolean isSupported() {
+        return false;
+    }
+
+    /**
+     * Without JFR there is nothing to emit: a listener that does nothing. {@link EventBus#enableFlightRecorder()} does not
+     * call it, as {@link #isSupported()} is false.
+     */
+    static EventBusListener newListener() {
+        return new EventBusListener() {};
+    }
+
+    static void published( EventMessage event , int handlers ) {
+    }
+
+}
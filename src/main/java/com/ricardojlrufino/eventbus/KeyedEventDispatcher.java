@@ -0,0 +1,38 @@
+package com.ricardojlrufino.eventbus;
+
+/**
+ * A dispatcher that groups the events by a key, extracted by the {@link EventKeyExtractor} registered with
+ * {@link EventBus#configDispatcher(Class, KeyedEventDispatcher, EventKeyExtractor)}. <br/>
+ * When no extractor is registered, the key is the class of the event.
+ */
+public interface KeyedEventDispatcher extends EventDispatcher {
+
+    /**
+     * Dispatches an {@link EventMessage} that belongs to key.
+     *
+     * @param event The {@link EventMessage} to be dispatched
+     * @param key The key returned by the {@link EventKeyExtractor}
+     */
+    public <E extends EventMessage> void dispatch(E event, Object key, EventHandler<E> handler, EventBusListener busListener );
+
+    /**
+     * Dispatches an {@link EventMessage} that belongs to key, to all handlers of it's type.
+     * @see EventDispatcher#dispatchAll(EventMessage, EventHandler[], EventBusListener)
+     */
+    default <E extends EventMessage> void dispatchAll(E event, Object key, EventHandler<E>[] handlers, EventBusListener busListener ) {
+        for (EventHandler<E> handler : handlers) {
+            dispatch(event, key, handler, busListener);
+        }
+    }
+
+    @Override
+    default <E extends EventMessage> void dispatch(E event, EventHandler<E> handler, EventBusListener busListener ) {
+        dispatch(event, event.getClass(), handler, busListener);
+    }
+
+    @Override
+    default <E extends EventMessage> void dispatchAll(E event, EventHandler<E>[] handlers, EventBusListener busListener ) {
+        dispatchAll(event, event.getClass(), handlers, busListener);
+    }
+
+}
@@ -0,0 +1,126 @@
+package com.ricardojlrufino.eventbus;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Lock-free histogram of durations in nanoseconds, with logarithmic buckets: 4 buckets for each power of 2,
+ * so a value is known within 25%. Recording is an index computation and two atomic increments. <br/>
+ * Used by {@link EventBusMetrics}.
+ */
+public final class LatencyHistogram {
+
+    private static final int SUB_BUCKETS = 4;
+    private static final int SUB_BITS = 2;
+
+    /** Values 0..3 have their own bucket, then 4 buckets for each power of 2 up to Long.MAX_VALUE */
+    static final int BUCKETS = SUB_BUCKETS + (63 - SUB_BITS) * SUB_BUCKETS;
+
+    private final AtomicLongArray buckets = new AtomicLongArray(BUCKETS);
+    private final LongAdder sum = new LongAdder();
+
+    public void record( long nanos ) {
+        if (nanos < 0) nanos = 0;
+        buckets.incrementAndGet(indexOf(nanos));
+        sum.add(nanos);
+    }
+
+    static int indexOf( long value ) {
+        if (value < SUB_BUCKETS) return (int) value;
+
+        int exponent = 63 - Long.numberOfLeadingZeros(value);
+        int sub = (int) (value >>> (exponent - SUB_BITS)) & (SUB_BUCKETS - 1);
+        return (exponent - SUB_BITS + 1) * SUB_BUCKETS + sub;
+    }
+
+    /**
+     * Highest value of the bucket.
+     */
+    static long upperBoundOf( int index ) {
+        if (index < SUB_BUCKETS) return index;
+
+        int exponent = index / SUB_BUCKETS + SUB_BITS - 1;
+        long lower = (long) (SUB_BUCKETS + index % SUB_BUCKETS) << (exponent - SUB_BITS);
+        return lower + (1L << (exponent - SUB_BITS)) - 1;
+    }
+
+    /**
+     * Copy of the current values. Concurrent records may be partially included.
+     */
+    public Snapshot snapshot() {
+        long[] counts = new long[BUCKETS];
+        for (int i = 0; i < BUCKETS; i++) {
+            counts[i] = buckets.get(i);
+        }
+        return new Snapshot(counts, sum.sum());
+    }
+
+    /**
+     * Immutable values of a {@link LatencyHistogram}.
+     */
+    public static final class Snapshot {
+
+        private final long[] counts;
+        private final long count;
+        private final long sum;
+
+        Snapshot(long[] counts, long sum) {
+            long total = 0;
+            for (long value : counts) {
+                total += value;
+            }
+            this.counts = counts;
+            this.count = total;
+            this.sum = sum;
+        }
+
+        public long getCount() {
+            return count;
+        }
+
+        /**
+         * Mean, in nanoseconds
+         */
+        public double getMean() {
+            return (count == 0 ? 0 : (double) sum / count);
+        }
+
+        /**
+         * Upper bound of the bucket of the highest value, in nanoseconds
+         */
+        public long getMax() {
+            for (int i = counts.length - 1; i >= 0; i--) {
+                if (counts[i] > 0) return upperBoundOf(i);
+            }
+            return 0;
+        }
+
+        /**
+         * Upper bound of the bucket that contains the percentile, in nanoseconds
+         * @param percentile from 0 to 100
+         */
+        public long getPercentile( double percentile ) {
+            if (count == 0) return 0;
+
+            long rank = (long) Math.ceil(count * percentile / 100);
+            long seen = 0;
+            for (int i = 0; i < counts.length; i++) {
+                seen += counts[i];
+                if (seen >= rank && seen > 0) return upperBoundOf(i);
+            }
+            return getMax();
+        }
+
+        @Override
+        public String toString() {
+            return String.format("count=%d mean=%.1fus p50=%.1fus p99=%.1fus max=%.1fus", count, getMean() / 1000,
+                                 micros(getPercentile(50)), micros(getPercentile(99)), micros(getMax()));
+        }
+
+        private static double micros( long nanos ) {
+            return nanos / (double) TimeUnit.MICROSECONDS.toNanos(1);
+        }
+    }
+
+}
@@ -0,0 +1,54 @@
+package com.ricardojlrufino.eventbus;
+
+import java.util.concurrent.atomic.AtomicIntegerFieldUpdater;
+
+/**
+ * Event that is reused, to avoid allocating one event per {@link EventBus#notify(EventMessage)}. <br/>
+ * Get the event from {@link EventBus#obtain(Class)}, fill it and notify it. The bus counts the handlers that will run the
+ * event and returns it to its {@link EventPool} after the last one, calling {@link #reset()}. <br/>
+ *
+ * Rules: notify the event only once, and do not keep a reference to it after the handler returns.
+ * Events dropped by a dispatcher (see {@link EventBusListener#eventIgnored(EventMessage, EventDispatcher, String)}) are also
+ * returned, after the last handler that ran or was dropped. Events rejected by a dispatcher that was shut down
+ * ({@link java.util.concurrent.RejectedExecutionException}) are left to the garbage collector.
+ */
+public abstract class PooledEventMessage implements EventMessage {
+
+    private static final AtomicIntegerFieldUpdater<PooledEventMessage> REFERENCES =
+                    AtomicIntegerFieldUpdater.newUpdater(PooledEventMessage.class, "references");
+
+    /** Handlers that did not run yet */
+    private volatile int references;
+
+    /** Owner, set when created by the pool */
+    EventPool<?> pool;
+
+    /**
+     * Clears the state of the event before it returns to the pool.
+     */
+    protected abstract void reset();
+
+    void retain( int handlers ) {
+        REFERENCES.set(this, handlers);
+    }
+
+    /**
+     * A handler finished, the last one returns the event to the pool.
+     */
+    void release() {
+        if (REFERENCES.decrementAndGet(this) == 0) recycle();
+    }
+
+    /**
+     * Several handlers will not run the event.
+     */
+    void release( int handlers ) {
+        if (REFERENCES.addAndGet(this, -handlers) == 0) recycle();
+    }
+
+    void recycle() {
+        reset();
+        if (pool != null) pool.release(this);
+    }
+
+}
@@ -0,0 +1,36 @@
+package com.ricardojlrufino.eventbus;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Marks a method of a subscriber as a handler, registered by {@link EventBus#registerSubscriber(Object)}. <br/>
+ * The method must be an instance method with a single parameter, the type of {@link EventMessage} it handles.
+ * Public methods of public classes are called as fast as a lambda handler, the others through a {@link java.lang.invoke.MethodHandle}. <br/>
+ * With the <code>eventbus4j-processor</code> annotation processor, the methods are found at build time (see {@link SubscriberIndex}).
+ *
+ * <pre>
+ * &#64;Subscribe
+ * public void onBoardChange(EventBoardChange event) { ... }
+ * </pre>
+ */
+@Documented
+@Retention(RetentionPolicy.RUNTIME)
+@Target(ElementType.METHOD)
+public @interface Subscribe {
+
+  /**
+   * Dispatcher created for the event type, if no dispatcher was configured for it when the subscriber is registered.
+   * The class needs a public constructor without parameters. The default keeps the dispatcher of the bus.
+   */
+  Class<? extends EventDispatcher> dispatcher() default EventDispatcher.class;
+
+  /**
+   * Handlers with a higher priority run first, see {@link EventBus#register(Class, EventHandler, int)}.
+   */
+  int priority() default EventBus.DEFAULT_PRIORITY;
+
+}
@@ -0,0 +1,50 @@
+package com.ricardojlrufino.eventbus;
+
+import java.util.Map;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * Subscriber methods found at build time, so {@link EventBus#registerSubscriber(Object)} does not need reflection. <br/>
+ * Implementations are generated by the <code>eventbus4j-processor</code> annotation processor and found with
+ * {@link java.util.ServiceLoader}. Classes that are not in an index are scanned at runtime.
+ *
+ * @see Subscribe
+ */
+public interface SubscriberIndex {
+
+  /**
+   * Adds the subscriptions of each subscriber class of this index. Called once, when the indexes are loaded.
+   *
+   * @param subscriptions subscriber class to its subscriptions
+   */
+  void addSubscriptions(Map<Class<?>, Subscription[]> subscriptions);
+
+  /**
+   * One {@link Subscribe} method of a subscriber class.
+   */
+  final class Subscription {
+
+    final Class<? extends EventMessage> eventType;
+    final Function<Object, EventHandler<?>> binder;
+    final Supplier<EventDispatcher> dispatcher;
+    final int priority;
+
+    public Subscription(Class<? extends EventMessage> eventType, Function<Object, EventHandler<?>> binder, Supplier<EventDispatcher> dispatcher) {
+      this(eventType, binder, dispatcher, EventBus.DEFAULT_PRIORITY);
+    }
+
+    /**
+     * @param eventType Parameter of the method
+     * @param binder Creates the handler that calls the method on a subscriber
+     * @param dispatcher Hint of {@link Subscribe#dispatcher()}, or null
+     * @param priority {@link Subscribe#priority()}
+     */
+    public Subscription(Class<? extends EventMessage> eventType, Function<Object, EventHandler<?>> binder, Supplier<EventDispatcher> dispatcher, int priority) {
+      this.eventType = eventType;
+      this.binder = binder;
+      this.dispatcher = dispatcher;
+      this.priority = priority;
+    }
+  }
+}
@@ -0,0 +1,221 @@
+package com.ricardojlrufino.eventbus;
+
+import java.lang.invoke.CallSite;
+import java.lang.invoke.LambdaConversionException;
+import java.lang.invoke.LambdaMetafactory;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.ServiceLoader;
+import java.util.Set;
+import java.util.function.Supplier;
+
+import com.ricardojlrufino.eventbus.SubscriberIndex.Subscription;
+
+/**
+ * Finds the {@link Subscribe} methods of a subscriber class and binds them into {@link EventHandler}s. <br/>
+ * Classes of a {@link SubscriberIndex} are not scanned. The others are scanned only once: public methods are bound with
+ * {@link LambdaMetafactory}, so the handler is a real lambda class; the others use a {@link MethodHandle} bound to the subscriber.
+ * The system property <code>eventbus4j.ignoreIndex=true</code> disables the indexes (to compare the startup time).
+ */
+final class SubscriberMethods {
+
+    private static final MethodHandles.Lookup LOOKUP = MethodHandles.lookup();
+
+    private static final MethodType ON_EVENT = MethodType.methodType(void.class, EventMessage.class);
+
+    private static final ClassValue<Subscription[]> CACHE = new ClassValue<Subscription[]>() {
+        @Override
+        protected Subscription[] computeValue( Class<?> type ) {
+            return scan(type);
+        }
+    };
+
+    private SubscriberMethods() {
+    }
+
+    static Subscription[] of( Class<?> subscriberType ) {
+        Subscription[] indexed = Indexes.SUBSCRIPTIONS.get(subscriberType);
+        return (indexed != null ? indexed : CACHE.get(subscriberType));
+    }
+
+    /**
+     * Generated indexes, loaded on first use.
+     */
+    private static final class Indexes {
+
+        static final Map<Class<?>, Subscription[]> SUBSCRIPTIONS = load();
+
+        private static Map<Class<?>, Subscription[]> load() {
+            Map<Class<?>, Subscription[]> subscriptions = new HashMap<>();
+            if (Boolean.getBoolean("eventbus4j.ignoreIndex")) return subscriptions;
+
+            for (SubscriberIndex index : ServiceLoader.load(SubscriberIndex.class, SubscriberMethods.class.getClassLoader())) {
+                index.addSubscriptions(subscriptions);
+            }
+            return subscriptions;
+        }
+    }
+
+    /**
+     * Annotated methods of the class and its superclasses. A method overridden in a subclass is called once, on the subclass.
+     */
+    private static Subscription[] scan( Class<?> subscriberType ) {
+        List<Subscription> subscriptions = new ArrayList<>();
+        Set<String> signatures = new HashSet<>();
+
+        for (Class<?> type = subscriberType; type != null && type != Object.class; type = type.getSuperclass()) {
+            for (Method method : type.getDeclaredMethods()) {
+                if (!method.isAnnotationPresent(Subscribe.class) || method.isBridge()) continue;
+
+                if (!signatures.add(method.getName() + Arrays.toString(method.getParameterTypes()))) continue;
+
+                Class<?>[] parameters = method.getParameterTypes();
+                if (Modifier.isStatic(method.getModifiers()) || parameters.length != 1 || !EventMessage.class.isAssignableFrom(parameters[0])) {
+                    throw new IllegalArgumentException("@Subscribe method must be an instance method with one EventMessage parameter: " + method);
+                }
+
+                Subscribe subscribe = method.getAnnotation(Subscribe.class);
+                SubscriberMethod subscriberMethod = new SubscriberMethod(method, parameters[0].asSubclass(EventMessage.class));
+                subscriptions.add(new Subscription(subscriberMethod.eventType, subscriberMethod::bind,
+                                                   dispatcherHint(subscribe.dispatcher(), method), subscribe.priority()));
+            }
+        }
+
+        return subscriptions.toArray(new Subscription[0]);
+    }
+
+    private static Supplier<EventDispatcher> dispatcherHint( Class<? extends EventDispatcher> type , Method method ) {
+        if (type == EventDispatcher.class) return null;
+
+        Constructor<? extends EventDispatcher> constructor;
+        try {
+            constructor = type.getConstructor();
+        } catch (NoSuchMethodException e) {
+            throw new IllegalArgumentException("@Subscribe dispatcher needs a public constructor without parameters: " + method, e);
+        }
+
+        return () -> {
+            try {
+                return constructor.newInstance();
+            } catch (ReflectiveOperationException e) {
+                throw new IllegalStateException("Can't create the dispatcher of " + method, e);
+            }
+        };
+    }
+
+    private static final class SubscriberMethod {
+
+        final Class<? extends EventMessage> eventType;
+        final Method method;
+
+        /** (DeclaringClass)EventHandler from {@link LambdaMetafactory}, null if the method can't be bound this way */
+        private final MethodHandle factory;
+        /** (Object, EventMessage)void, used when there is no factory */
+        private MethodHandle invoker;
+
+        SubscriberMethod(Method method, Class<? extends EventMessage> eventType) {
+            this.method = method;
+            this.eventType = eventType;
+            this.factory = createFactory(method, eventType);
+        }
+
+        EventHandler<?> bind( Object subscriber ) {
+            if (factory != null) {
+                try {
+                    return (EventHandler<?>) factory.invoke(subscriber);
+                } catch (Error e) {
+                    throw e;
+                } catch (Throwable e) {
+                    // Falls back to the method handle
+                }
+            }
+
+            return new MethodHandleHandler(invoker().bindTo(subscriber), method);
+        }
+
+        private synchronized MethodHandle invoker() {
+            if (invoker == null) {
+                try {
+                    method.setAccessible(true);
+                    invoker = LOOKUP.unreflect(method).asType(MethodType.methodType(void.class, Object.class, EventMessage.class));
+                } catch (IllegalAccessException | RuntimeException e) {
+                    throw new IllegalArgumentException("@Subscribe method is not accessible: " + method, e);
+                }
+            }
+            return invoker;
+        }
+
+        private static MethodHandle createFactory( Method method , Class<?> eventType ) {
+            Class<?> declaringClass = method.getDeclaringClass();
+
+            if (!Modifier.isPublic(method.getModifiers()) || !Modifier.isPublic(declaringClass.getModifiers())) return null;
+
+            // The generated class is defined next to the EventBus, it must see the types of the method
+            if (!isVisible(declaringClass) || !isVisible(eventType)) return null;
+
+            try {
+                CallSite site = LambdaMetafactory.metafactory(LOOKUP, "onEvent",
+                                                              MethodType.methodType(EventHandler.class, declaringClass),
+                                                              ON_EVENT,
+                                                              LOOKUP.unreflect(method),
+                                                              MethodType.methodType(void.class, eventType));
+                return site.getTarget();
+            } catch (LambdaConversionException | IllegalAccessException e) {
+                return null;
+            }
+        }
+
+        private static boolean isVisible( Class<?> type ) {
+            try {
+                return Class.forName(type.getName(), false, SubscriberMethods.class.getClassLoader()) == type;
+            } catch (ClassNotFoundException | LinkageError e) {
+                return false;
+            }
+        }
+    }
+
+    /**
+     * Handler of a method that can't be bound with {@link LambdaMetafactory}.
+     */
+    private static final class MethodHandleHandler implements EventHandler<EventMessage> {
+
+        private final MethodHandle handle;
+        private final Method method;
+
+        MethodHandleHandler(MethodHandle handle, Method method) {
+            this.handle = handle;
+            this.method = method;
+        }
+
+        @Override
+        public void onEvent( EventMessage event ) {
+            try {
+                handle.invokeExact(event);
+            } catch (Throwable e) {
+                // Same as the lambda handlers: checked exceptions reach the listener unchanged
+                throw SubscriberMethods.<RuntimeException>sneakyThrow(e);
+            }
+        }
+
+        @Override
+        public String toString() {
+            return method.toString();
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T extends Throwable> T sneakyThrow( Throwable e ) throws T {
+        throw (T) e;
+    }
+
+}
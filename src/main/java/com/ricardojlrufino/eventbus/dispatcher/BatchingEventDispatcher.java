@@ -0,0 +1,248 @@
+package com.ricardojlrufino.eventbus.dispatcher;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import com.ricardojlrufino.eventbus.BatchEventHandler;
+import com.ricardojlrufino.eventbus.DispatcherMXBean;
+import com.ricardojlrufino.eventbus.EventBusListener;
+import com.ricardojlrufino.eventbus.EventDispatcher;
+import com.ricardojlrufino.eventbus.EventHandler;
+import com.ricardojlrufino.eventbus.EventMessage;
+
+/**
+ * Groups the events of each {@link BatchEventHandler} into batches, on a single thread. <br/>
+ * A batch runs when it reaches <code>maxBatchSize</code> events, or <code>maxDelayMillis</code> after its first event,
+ * whichever comes first. The listener receives {@link EventBusListener#beforeRunBatch(List, BatchEventHandler)},
+ * {@link EventBusListener#afterRunBatch(List, BatchEventHandler)} and {@link EventBusListener#onBatchError(Exception, List, BatchEventHandler)}
+ * for each batch. <br/>
+ *
+ * Cancelled events ({@link com.ricardojlrufino.eventbus.CancellableEvent}) are left out of the batch. <br/>
+ *
+ * A batch is reported to a single listener: an event notified with another listener runs the pending batch first and
+ * starts a new one. The bus gives a new listener to the events of a type when its plan changes: after
+ * {@link com.ricardojlrufino.eventbus.EventBus#addBusListener(EventBusListener)}, and, while metrics are enabled or for a
+ * {@link com.ricardojlrufino.eventbus.PooledEventMessage}, after each register or unregister of a handler of the type.
+ * So these run the pending batches early. <br/>
+ *
+ * Other handlers of the event run one task per event for all of them, on the same thread. The pending batches run on
+ * shutdown, the events added after it are reported as {@link #MESSAGE_SHUTDOWN}. A batch is kept only while it has
+ * events, so an unregistered handler is released after its last batch.
+ */
+public class BatchingEventDispatcher implements EventDispatcher {
+
+    /** The event was added while the dispatcher was being shut down */
+    public static final String MESSAGE_SHUTDOWN = "SHUTDOWN";
+
+    private final ExecutorService executor;
+    private final DispatcherMonitor monitor = new DispatcherMonitor(BatchingEventDispatcher.class);
+    private final int maxBatchSize;
+    private final long maxDelayNanos;
+
+    private final Map<EventHandler<?>, Batch> batches = new ConcurrentHashMap<>();
+
+    /** The handlers of the last dispatchAll, split: a plan passes the same array until it changes */
+    private volatile Split split;
+
+    private volatile boolean running = true;
+
+    public BatchingEventDispatcher(int maxBatchSize, long maxDelayMillis) {
+        this("BatchingEventDispatcher", maxBatchSize, maxDelayMillis);
+    }
+
+    public BatchingEventDispatcher(Class<?> event, int maxBatchSize, long maxDelayMillis) {
+        this(event.getSimpleName(), maxBatchSize, maxDelayMillis);
+    }
+
+    private BatchingEventDispatcher(String name, int maxBatchSize, long maxDelayMillis) {
+        if (maxBatchSize < 1) throw new IllegalArgumentException("maxBatchSize must be > 0");
+
+        this.maxBatchSize = maxBatchSize;
+        this.maxDelayNanos = TimeUnit.MILLISECONDS.toNanos(maxDelayMillis);
+        this.executor = Executors.newSingleThreadExecutor(new SingleThreadEventDispatcher.ThreadFactoryImpl(name));
+    }
+
+    @Override
+    public <E extends EventMessage> void dispatch( E event , EventHandler<E> handler , EventBusListener busListener ) {
+        if (!running) throw new RejectedExecutionException("Dispatcher has been shut down");
+
+        if (handler instanceof BatchEventHandler) {
+            add(event, (BatchEventHandler<?>) handler, busListener);
+        } else {
+            execute(new HandlerTask(event, handler, null, busListener));
+        }
+    }
+
+    /**
+     * The other handlers run in a single task, the {@link BatchEventHandler}s receive the event in their batch.
+     */
+    @Override
+    public <E extends EventMessage> void dispatchAll( E event , EventHandler<E>[] handlers , EventBusListener busListener ) {
+        if (!running) throw new RejectedExecutionException("Dispatcher has been shut down");
+
+        Split current = split;
+        if (current == null || current.source != handlers) {
+            split = current = new Split(handlers);
+        }
+
+        if (current.single.length > 0) execute(new HandlerTask(event, null, current.single, busListener));
+
+        for (BatchEventHandler<?> handler : current.batched) {
+            add(event, handler, busListener);
+        }
+    }
+
+    private void execute( HandlerTask task ) {
+        executor.execute(monitor.track(task::runGuarded));
+    }
+
+    private void add( EventMessage event , BatchEventHandler<?> handler , EventBusListener busListener ) {
+        while (true) {
+            Batch batch = batches.get(handler);
+            if (batch == null) {
+                batch = batches.computeIfAbsent(handler, h -> new Batch((BatchEventHandler<?>) h));
+            }
+
+            // False when the batch was submitted meanwhile: the event goes into the next one
+            if (batch.add(event, busListener)) return;
+        }
+    }
+
+    /**
+     * Number of handlers with a pending batch
+     */
+    public int size() {
+        return batches.size();
+    }
+
+    @Override
+    public DispatcherMXBean getMonitor() {
+        return monitor;
+    }
+
+    @Override
+    public void shutdown( boolean wait , long millis ) {
+        running = false;
+
+        for (Batch batch : batches.values()) {
+            batch.flush();
+        }
+
+        executor.shutdown();
+
+        if (wait) {
+            try {
+                if (!executor.awaitTermination(millis, TimeUnit.MILLISECONDS)) {
+                    executor.shutdownNow();
+                }
+            } catch (InterruptedException e) {
+                executor.shutdownNow();
+            }
+        }
+    }
+
+    /**
+     * Events accumulated for one handler, until they are submitted: then the batch is removed from the map and the next
+     * event starts a new one. Guarded by its own lock.
+     */
+    @SuppressWarnings({ "rawtypes", "unchecked" })
+    private final class Batch {
+
+        private final BatchEventHandler handler;
+        private final List<EventMessage> events = new ArrayList<>(maxBatchSize);
+
+        private EventBusListener listener;
+        private Future<?> timer;
+        private boolean submitted;
+
+        Batch(BatchEventHandler handler) {
+            this.handler = handler;
+        }
+
+        /**
+         * @return false if the batch was already submitted, the event was not added
+         */
+        synchronized boolean add( EventMessage event , EventBusListener busListener ) {
+            if (submitted) return false;
+
+            // Checked under the lock: shutdown() flushes each batch after it sets running
+            if (!running) {
+                busListener.eventIgnored(event, BatchingEventDispatcher.this, MESSAGE_SHUTDOWN);
+                return true;
+            }
+
+            if (listener != null && listener != busListener) {
+                submit();
+                return false;
+            }
+
+            events.add(event);
+            listener = busListener;
+
+            if (events.size() >= maxBatchSize) {
+                submit();
+            } else if (events.size() == 1) {
+                timer = SharedTimer.get().schedule(this::flush, maxDelayNanos, TimeUnit.NANOSECONDS);
+            }
+            return true;
+        }
+
+        synchronized void flush() {
+            if (!submitted && !events.isEmpty()) submit();
+        }
+
+        private void submit() {
+            submitted = true;
+            batches.remove(handler, this);
+
+            if (timer != null) {
+                timer.cancel(false);
+                timer = null;
+            }
+
+            List<EventMessage> batch = events;
+            EventBusListener batchListener = listener;
+
+            Runnable tracked = monitor.track(() -> HandlerInvoker.invokeBatchGuarded(batch, handler, batchListener));
+            try {
+                executor.execute(tracked);
+            } catch (RejectedExecutionException e) {
+                // A batch started while shutdown() flushed the others
+                monitor.dropped(tracked);
+                for (EventMessage event : batch) {
+                    batchListener.eventIgnored(event, BatchingEventDispatcher.this, MESSAGE_SHUTDOWN);
+                }
+            }
+        }
+    }
+
+    private static final class Split {
+        final EventHandler[] source;
+        final EventHandler[] single;
+        final BatchEventHandler[] batched;
+
+        Split(EventHandler[] source) {
+            List<EventHandler> single = new ArrayList<>();
+            List<BatchEventHandler> batched = new ArrayList<>();
+            for (EventHandler handler : source) {
+                if (handler instanceof BatchEventHandler) {
+                    batched.add((BatchEventHandler) handler);
+                } else {
+                    single.add(handler);
+                }
+            }
+
+            this.source = source;
+            this.single = single.toArray(new EventHandler[0]);
+            this.batched = batched.toArray(new BatchEventHandler[0]);
+        }
+    }
+
+}
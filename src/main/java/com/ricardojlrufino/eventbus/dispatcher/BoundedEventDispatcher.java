@@ -0,0 +1,218 @@
+package com.ricardojlrufino.eventbus.dispatcher;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import com.ricardojlrufino.eventbus.DispatcherMXBean;
+import com.ricardojlrufino.eventbus.EventBusListener;
+import com.ricardojlrufino.eventbus.EventDispatcher;
+import com.ricardojlrufino.eventbus.EventHandler;
+import com.ricardojlrufino.eventbus.EventMessage;
+
+/**
+ * Runs the events on a single thread, with a bounded queue. <br/>
+ * When the queue is full, the {@link OverflowPolicy} decides what happens with the event. Every event that is
+ * dropped is reported to {@link EventBusListener#eventIgnored(EventMessage, EventDispatcher, String)} with one of the
+ * MESSAGE_* reasons of this class.
+ */
+public class BoundedEventDispatcher implements EventDispatcher {
+
+    public enum OverflowPolicy {
+        /** The caller waits until there is space in the queue, or until the dispatcher is shut down (the event is then rejected) */
+        BLOCK,
+        /** The caller waits up to the configured timeout, then the event is dropped ({@link BoundedEventDispatcher#MESSAGE_QUEUE_TIMEOUT}) */
+        BLOCK_TIMEOUT,
+        /** The new event is dropped ({@link BoundedEventDispatcher#MESSAGE_QUEUE_FULL}) */
+        DROP_NEWEST,
+        /** The oldest queued event is dropped to make room for the new one ({@link BoundedEventDispatcher#MESSAGE_DROPPED_OLDEST}) */
+        DROP_OLDEST,
+        /** The handlers run on the caller thread. This throttles the producer, but the event runs out of order */
+        CALLER_RUNS
+    }
+
+    public static final String MESSAGE_QUEUE_FULL = "QUEUE_FULL";
+
+    public static final String MESSAGE_QUEUE_TIMEOUT = "QUEUE_TIMEOUT";
+
+    public static final String MESSAGE_DROPPED_OLDEST = "DROPPED_OLDEST";
+
+    public static final String MESSAGE_INTERRUPTED = "INTERRUPTED";
+
+    private static final long POLL_MILLIS = 100;
+
+    private final BlockingQueue<Task> queue;
+    private final OverflowPolicy policy;
+    private final long timeoutMillis;
+    private final Thread worker;
+    private final DispatcherMonitor monitor;
+
+    private volatile boolean running = true;
+
+    public BoundedEventDispatcher(int capacity, OverflowPolicy policy) {
+        this("BoundedEventDispatcher", capacity, policy, 0);
+    }
+
+    public BoundedEventDispatcher(Class<?> event, int capacity, OverflowPolicy policy) {
+        this(event.getSimpleName(), capacity, policy, 0);
+    }
+
+    /**
+     * @param timeoutMillis Maximum time the caller waits for space, when the policy is {@link OverflowPolicy#BLOCK_TIMEOUT}
+     */
+    public BoundedEventDispatcher(Class<?> event, int capacity, OverflowPolicy policy, long timeoutMillis) {
+        this(event.getSimpleName(), capacity, policy, timeoutMillis);
+    }
+
+    private BoundedEventDispatcher(String name, int capacity, OverflowPolicy policy, long timeoutMillis) {
+        if (policy == OverflowPolicy.BLOCK_TIMEOUT && timeoutMillis <= 0) {
+            throw new IllegalArgumentException("BLOCK_TIMEOUT requires a timeout");
+        }
+
+        this.queue = new ArrayBlockingQueue<>(capacity);
+        this.policy = policy;
+        this.timeoutMillis = timeoutMillis;
+        this.monitor = new DispatcherMonitor(BoundedEventDispatcher.class, new DispatcherMonitor.Probe() {
+            @Override
+            public int depth() {
+                return queue.size();
+            }
+
+            @Override
+            public long oldestEnqueued() {
+                Task oldest = queue.peek();
+                return (oldest != null ? oldest.enqueued : 0);
+            }
+        });
+
+        this.worker = new SingleThreadEventDispatcher.ThreadFactoryImpl(name).newThread(this::processEvents);
+        this.worker.start();
+    }
+
+    @Override
+    public <E extends EventMessage> void dispatch( E event , EventHandler<E> handler , EventBusListener busListener ) {
+        enqueue(new Task(event, handler, null, busListener));
+    }
+
+    @Override
+    public <E extends EventMessage> void dispatchAll( E event , EventHandler<E>[] handlers , EventBusListener busListener ) {
+        enqueue(new Task(event, null, handlers, busListener));
+    }
+
+    private void enqueue( Task task ) {
+        if (!running) throw new RejectedExecutionException("Dispatcher has been shut down");
+
+        task.enqueued = monitor.now();
+        if (queue.offer(task)) {
+            checkAccepted(task);
+            return;
+        }
+
+        try {
+            switch (policy) {
+                case BLOCK:
+                    // Not put(): after a shutdown, the worker may never take another event
+                    while (!queue.offer(task, POLL_MILLIS, TimeUnit.MILLISECONDS)) {
+                        if (!running) throw new RejectedExecutionException("Dispatcher has been shut down");
+                    }
+                    checkAccepted(task);
+                    break;
+
+                case BLOCK_TIMEOUT:
+                    if (queue.offer(task, timeoutMillis, TimeUnit.MILLISECONDS)) {
+                        checkAccepted(task);
+                    } else {
+                        task.ignored(this, MESSAGE_QUEUE_TIMEOUT);
+                    }
+                    break;
+
+                case DROP_NEWEST:
+                    task.ignored(this, MESSAGE_QUEUE_FULL);
+                    break;
+
+                case DROP_OLDEST:
+                    while (!queue.offer(task)) {
+                        Task oldest = queue.poll();
+                        if (oldest != null) {
+                            oldest.ignored(this, MESSAGE_DROPPED_OLDEST);
+                        }
+                    }
+                    checkAccepted(task);
+                    break;
+
+                case CALLER_RUNS:
+                    monitor.run(task);
+                    break;
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            task.ignored(this, MESSAGE_INTERRUPTED);
+        }
+    }
+
+    /**
+     * The dispatcher may have been shut down, and the worker gone, between the running check and the enqueue.
+     * Then the task is taken back, unless the worker already took it.
+     */
+    private void checkAccepted( Task task ) {
+        if (!running && queue.remove(task)) throw new RejectedExecutionException("Dispatcher has been shut down");
+    }
+
+    private void processEvents() {
+        while (running || !queue.isEmpty()) {
+            Task task;
+            try {
+                task = queue.poll(POLL_MILLIS, TimeUnit.MILLISECONDS);
+            } catch (InterruptedException e) {
+                // shutdownNow
+                return;
+            }
+
+            if (task != null) {
+                long begin = monitor.begin();
+                task.runGuarded();
+                monitor.end(begin);
+            }
+        }
+    }
+
+    /**
+     * Number of events waiting in the queue
+     */
+    public int size() {
+        return queue.size();
+    }
+
+    @Override
+    public DispatcherMXBean getMonitor() {
+        return monitor;
+    }
+
+    @Override
+    public void shutdown( boolean wait , long millis ) {
+        running = false;
+
+        if (wait) {
+            try {
+                worker.join(millis);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+
+            if (worker.isAlive()) {
+                worker.interrupt();
+            }
+        }
+    }
+
+    private static final class Task extends HandlerTask {
+        /** {@link DispatcherMonitor#now()} when queued */
+        long enqueued;
+
+        Task(EventMessage event, EventHandler<?> handler, EventHandler<?>[] handlers, EventBusListener listener) {
+            super(event, handler, handlers, listener);
+        }
+    }
+
+}
@@ -0,0 +1,138 @@
+package com.ricardojlrufino.eventbus.dispatcher;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+import com.ricardojlrufino.eventbus.DispatcherMXBean;
+import com.ricardojlrufino.eventbus.EventBusListener;
+import com.ricardojlrufino.eventbus.EventHandler;
+import com.ricardojlrufino.eventbus.EventMessage;
+import com.ricardojlrufino.eventbus.KeyedEventDispatcher;
+
+/**
+ * Runs the events on a single thread, keeping only the latest waiting event of each key. <br/>
+ * While an event of a key is still in the queue, a newer event of the same key replaces it in place, and the replaced one
+ * is reported as {@link #MESSAGE_CONFLATED}. Each key runs at most once per pass over the queue, and the queue holds
+ * at most one entry per key. <br/>
+ * The entry of a key is removed when it has run and no newer event waits, so the memory is bounded by the keys with
+ * waiting events, not by all the keys ever seen. <br/>
+ *
+ * For events where the intermediate states are useless (UI refresh, prices...). Without a key extractor, the event type is the key.
+ */
+public class ConflatingEventDispatcher implements KeyedEventDispatcher {
+
+    public static final String MESSAGE_CONFLATED = "CONFLATED";
+
+    /** The event was accepted while the dispatcher was being shut down */
+    public static final String MESSAGE_SHUTDOWN = "SHUTDOWN";
+
+    private final ExecutorService executor;
+    private final DispatcherMonitor monitor = new DispatcherMonitor(ConflatingEventDispatcher.class);
+
+    private final Map<Object, Slot> slots = new ConcurrentHashMap<>();
+
+    private volatile boolean running = true;
+
+    public ConflatingEventDispatcher() {
+        this("ConflatingEventDispatcher");
+    }
+
+    public ConflatingEventDispatcher(Class<?> event) {
+        this(event.getSimpleName());
+    }
+
+    private ConflatingEventDispatcher(String name) {
+        this.executor = Executors.newSingleThreadExecutor(new SingleThreadEventDispatcher.ThreadFactoryImpl(name));
+    }
+
+    @Override
+    public <E extends EventMessage> void dispatch( E event , Object key , EventHandler<E> handler , EventBusListener busListener ) {
+        conflate(key, new HandlerTask(event, handler, null, busListener));
+    }
+
+    @Override
+    public <E extends EventMessage> void dispatchAll( E event , Object key , EventHandler<E>[] handlers , EventBusListener busListener ) {
+        conflate(key, new HandlerTask(event, null, handlers, busListener));
+    }
+
+    private void conflate( Object key , HandlerTask task ) {
+        if (!running) throw new RejectedExecutionException("Dispatcher has been shut down");
+
+        Slot slot = slots.get(key);
+        if (slot == null) {
+            slot = slots.computeIfAbsent(key, Slot::new);
+        }
+
+        HandlerTask previous = slot.pending.getAndSet(task);
+        if (previous != null) {
+            // The slot is already in the queue and will run this one
+            previous.ignored(this, MESSAGE_CONFLATED);
+            return;
+        }
+
+        Runnable tracked = monitor.track(slot);
+        try {
+            executor.execute(tracked);
+        } catch (RejectedExecutionException e) {
+            monitor.dropped(tracked);
+            HandlerTask rejected = slot.pending.getAndSet(null);
+            if (rejected != null) rejected.ignored(this, MESSAGE_SHUTDOWN);
+        }
+    }
+
+    /**
+     * Number of keys with a waiting (or running) event
+     */
+    public int size() {
+        return slots.size();
+    }
+
+    @Override
+    public DispatcherMXBean getMonitor() {
+        return monitor;
+    }
+
+    @Override
+    public void shutdown( boolean wait , long millis ) {
+        running = false;
+        executor.shutdown();
+
+        if (wait) {
+            try {
+                if (!executor.awaitTermination(millis, TimeUnit.MILLISECONDS)) {
+                    executor.shutdownNow();
+                }
+            } catch (InterruptedException e) {
+                executor.shutdownNow();
+            }
+        }
+    }
+
+    /**
+     * Latest waiting event of a key. It is in the executor queue while pending is not null.
+     */
+    private final class Slot implements Runnable {
+        final Object key;
+        final AtomicReference<HandlerTask> pending = new AtomicReference<>();
+
+        Slot(Object key) {
+            this.key = key;
+        }
+
+        @Override
+        public void run() {
+            HandlerTask task = pending.getAndSet(null);
+            if (task != null) task.run();
+
+            // Idle: the next event of the key creates a new slot. An event that took this slot from the map just before
+            // the remove queues it again, so it is not lost, the key only has two entries for a while.
+            if (pending.get() == null) slots.remove(key, this);
+        }
+    }
+
+}
@@ -5,6 +5,7 @@ import java.util.concurrent.Executors;
 import java.util.concurrent.Future;
 import java.util.concurrent.TimeUnit;
 
+import com.ricardojlrufino.eventbus.DispatcherMXBean;
 import com.ricardojlrufino.eventbus.EventBusListener;
 import com.ricardojlrufino.eventbus.EventDispatcher;
 import com.ricardojlrufino.eventbus.EventHandler;
@@ -21,6 +22,8 @@ public class DebounceEventDispatcher implements EventDispatcher {
     private Future<?> future;
     private long delay;
     
+    private final DispatcherMonitor monitor = new DispatcherMonitor(DebounceEventDispatcher.class);
+    
     public static String MESSAGE_TO_MANY_CALLS = "TO_MANY_CALLS";
 
     public DebounceEventDispatcher(long delay) {
@@ -35,15 +38,29 @@ public class DebounceEventDispatcher implements EventDispatcher {
             return;
         }
         
-        future = executor.submit(new DebounceRunnable(() -> {
-            listener.beforeRun(event, handler);
-            try {
-                handler.onEvent(event);
-            } catch (Exception e) {
-                listener.onError(e, event, handler);
-            }
-            listener.afterRun(event, handler);
-        }  , delay));
+        future = executor.submit(monitor.track(new DebounceRunnable(() -> {
+            HandlerInvoker.invoke(event, handler, listener);
+        }  , delay)));
+    }
+    
+    /**
+     * The event is debounced once for all handlers, which run in the same task.
+     */
+    @Override
+    public <E extends EventMessage> void dispatchAll( E event , EventHandler<E>[] handlers , EventBusListener listener ) {
+        if (future != null && !future.isDone()) {
+            listener.eventIgnored(event, this, MESSAGE_TO_MANY_CALLS, handlers.length);
+            return;
+        }
+        
+        future = executor.submit(monitor.track(new DebounceRunnable(() -> {
+            HandlerInvoker.invokeAll(event, handlers, listener);
+        }  , delay)));
+    }
+
+    @Override
+    public DispatcherMXBean getMonitor() {
+        return monitor;
     }
 
     @Override
@@ -0,0 +1,123 @@
+package com.ricardojlrufino.eventbus.dispatcher;
+
+import java.util.ArrayDeque;
+
+import com.ricardojlrufino.eventbus.DispatcherMXBean;
+import com.ricardojlrufino.eventbus.EventBusListener;
+import com.ricardojlrufino.eventbus.EventDispatcher;
+import com.ricardojlrufino.eventbus.EventHandler;
+import com.ricardojlrufino.eventbus.EventMessage;
+
+/**
+ * Runs the handlers on the same thread where the event was generated, without any thread handoff. <br/>
+ * Use for latency critical events with fast handlers: the caller of notify waits for them. <br/>
+ *
+ * Events notified from inside a handler are not run immediately (recursively): they are queued on the current thread and
+ * run after all the handlers of the outer event have returned, in the order they were notified (breadth first: the events
+ * they notify in turn run after them). This keeps the order predictable and the stack flat.
+ * The queue is shared by all direct dispatchers of the thread. If a listener callback throws, the exception reaches the caller
+ * of notify and the events still queued are reported as {@link #MESSAGE_DISCARDED}, by the dispatcher that queued each one.
+ */
+public class DirectEventDispatcher implements EventDispatcher {
+
+    /** A queued event that did not run, because a listener threw while the queue was running */
+    public static final String MESSAGE_DISCARDED = "DISCARDED";
+
+    private static final ThreadLocal<DispatchQueue> QUEUE = ThreadLocal.withInitial(DispatchQueue::new);
+
+    /** No queue: only the run time of the events notified outside of a handler */
+    private final DispatcherMonitor monitor = new DispatcherMonitor(DirectEventDispatcher.class);
+
+    @Override
+    public <E extends EventMessage> void dispatch( E event , EventHandler<E> handler , EventBusListener busListener ) {
+        DispatchQueue queue = QUEUE.get();
+
+        if (queue.draining) {
+            queue.pending.add(new QueuedTask(event, handler, null, busListener, this));
+            return;
+        }
+
+        queue.draining = true;
+        long begin = monitor.begin();
+        try {
+            HandlerInvoker.invoke(event, handler, busListener);
+            queue.drain();
+        } finally {
+            queue.draining = false;
+            queue.discard();
+            monitor.end(begin);
+        }
+    }
+
+    @Override
+    public <E extends EventMessage> void dispatchAll( E event , EventHandler<E>[] handlers , EventBusListener busListener ) {
+        DispatchQueue queue = QUEUE.get();
+
+        if (queue.draining) {
+            queue.pending.add(new QueuedTask(event, null, handlers, busListener, this));
+            return;
+        }
+
+        queue.draining = true;
+        long begin = monitor.begin();
+        try {
+            HandlerInvoker.invokeAll(event, handlers, busListener);
+            queue.drain();
+        } finally {
+            queue.draining = false;
+            queue.discard();
+            monitor.end(begin);
+        }
+    }
+
+    @Override
+    public DispatcherMXBean getMonitor() {
+        return monitor;
+    }
+
+    /**
+     * Nothing to stop, the events run on the callers threads.
+     */
+    @Override
+    public void shutdown( boolean wait , long millis ) {
+    }
+
+    /**
+     * Events notified by the handlers running on this thread.
+     */
+    private static final class DispatchQueue {
+        final ArrayDeque<QueuedTask> pending = new ArrayDeque<>();
+        boolean draining;
+
+        void drain() {
+            QueuedTask next;
+            while ((next = pending.poll()) != null) {
+                next.run();
+            }
+        }
+
+        /**
+         * After an exception, the events still queued are reported as {@link #MESSAGE_DISCARDED}.
+         */
+        void discard() {
+            QueuedTask next;
+            while ((next = pending.poll()) != null) {
+                next.ignored(next.dispatcher, MESSAGE_DISCARDED);
+            }
+        }
+    }
+
+    /**
+     * An event waiting in the queue, with the dispatcher of its type.
+     */
+    @SuppressWarnings("rawtypes")
+    private static final class QueuedTask extends HandlerTask {
+        final EventDispatcher dispatcher;
+
+        QueuedTask(EventMessage event, EventHandler handler, EventHandler[] handlers, EventBusListener listener, EventDispatcher dispatcher) {
+            super(event, handler, handlers, listener);
+            this.dispatcher = dispatcher;
+        }
+    }
+
+}
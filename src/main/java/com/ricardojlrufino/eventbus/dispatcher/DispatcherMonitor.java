@@ -0,0 +1,285 @@
+package com.ricardojlrufino.eventbus.dispatcher;
+
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+import com.ricardojlrufino.eventbus.DispatcherMXBean;
+
+/**
+ * {@link DispatcherMXBean} of the dispatchers of this package. <br/>
+ * Tasks given to an executor are wrapped by {@link #track(Runnable)}, which keeps them in a set until they start, so the
+ * queue depth and the oldest task are known. Dispatchers with their own queue use a {@link Probe} instead, and
+ * {@link #begin()} / {@link #end(long)} around each task. While disabled, nothing is wrapped or measured.
+ */
+final class DispatcherMonitor implements DispatcherMXBean {
+
+    private static final long WINDOW_NANOS = TimeUnit.SECONDS.toNanos(1);
+
+    /**
+     * Queue of a dispatcher that does not use {@link #track(Runnable)}.
+     */
+    interface Probe {
+        int depth();
+
+        /**
+         * @return the {@link #now()} of the oldest waiting task, or 0 if there is none
+         */
+        long oldestEnqueued();
+    }
+
+    private final String dispatcher;
+    private final Probe probe;
+
+    private volatile boolean enabled;
+
+    private final Set<Tracked> pending = ConcurrentHashMap.newKeySet();
+    private final LongAdder completed = new LongAdder();
+    private final LongAdder busyNanos = new LongAdder();
+
+    // Rates of the last window, guarded by this
+    private long windowStart;
+    private long windowCompleted;
+    private long windowBusy;
+    private double throughput;
+    private double busyRatio;
+
+    DispatcherMonitor(Class<?> dispatcher) {
+        this(dispatcher, null);
+    }
+
+    DispatcherMonitor(Class<?> dispatcher, Probe probe) {
+        this.dispatcher = dispatcher.getName();
+        this.probe = probe;
+    }
+
+    /**
+     * Timestamp for the tasks of a {@link Probe}, 0 while disabled.
+     */
+    long now() {
+        return enabled ? System.nanoTime() : 0;
+    }
+
+    /**
+     * @return the task to give to the executor: the same task while disabled
+     */
+    Runnable track( Runnable task ) {
+        if (!enabled) return task;
+
+        Tracked tracked = new Tracked(task, System.nanoTime());
+        pending.add(tracked);
+        return tracked;
+    }
+
+    /**
+     * The tracked task will not run (rejected by the executor).
+     */
+    void dropped( Runnable task ) {
+        if (task instanceof Tracked) pending.remove(task);
+    }
+
+    /**
+     * Start of a task.
+     * @return the value for {@link #end(long)}
+     */
+    long begin() {
+        return enabled ? System.nanoTime() : 0;
+    }
+
+    void end( long begin ) {
+        if (begin == 0) return;
+
+        busyNanos.add(System.nanoTime() - begin);
+        completed.increment();
+    }
+
+    void run( Runnable task ) {
+        long begin = begin();
+        try {
+            task.run();
+        } finally {
+            end(begin);
+        }
+    }
+
+    @Override
+    public String getDispatcher() {
+        return dispatcher;
+    }
+
+    @Override
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    @Override
+    public synchronized void setEnabled( boolean enabled ) {
+        if (enabled && !this.enabled) {
+            windowStart = System.nanoTime();
+            windowCompleted = completed.sum();
+            windowBusy = busyNanos.sum();
+            throughput = 0;
+            busyRatio = 0;
+        }
+        this.enabled = enabled;
+    }
+
+    @Override
+    public int getQueueDepth() {
+        return (probe != null ? probe.depth() : pending.size());
+    }
+
+    @Override
+    public long getOldestEventAgeMillis() {
+        long oldest = 0;
+        if (probe != null) {
+            oldest = probe.oldestEnqueued();
+        } else {
+            for (Tracked tracked : pending) {
+                if (oldest == 0 || tracked.enqueued - oldest < 0) oldest = tracked.enqueued;
+            }
+        }
+        return (oldest == 0 ? 0 : TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - oldest));
+    }
+
+    @Override
+    public long getCompleted() {
+        return completed.sum();
+    }
+
+    @Override
+    public synchronized double getThroughput() {
+        sample();
+        return throughput;
+    }
+
+    @Override
+    public synchronized double getBusyRatio() {
+        sample();
+        return busyRatio;
+    }
+
+    /**
+     * Computes the rates when the window is over. Until then, the rates since the start of the window.
+     */
+    private void sample() {
+        if (!enabled) return;
+
+        long now = System.nanoTime();
+        long elapsed = now - windowStart;
+        if (elapsed <= 0) return;
+
+        long done = completed.sum();
+        long busy = busyNanos.sum();
+
+        throughput = (done - windowCompleted) * (double) TimeUnit.SECONDS.toNanos(1) / elapsed;
+        busyRatio = (busy - windowBusy) / (double) elapsed;
+
+        if (elapsed >= WINDOW_NANOS) {
+            windowStart = now;
+            windowCompleted = done;
+            windowBusy = busy;
+        }
+    }
+
+    /**
+     * Sum of the monitors of several dispatchers, like the lanes of a {@link PartitionedEventDispatcher}.
+     */
+    static DispatcherMXBean combine( Class<?> dispatcher , DispatcherMXBean[] monitors ) {
+        return new Combined(dispatcher.getName(), monitors);
+    }
+
+    private final class Tracked implements Runnable {
+        final Runnable task;
+        final long enqueued;
+
+        Tracked(Runnable task, long enqueued) {
+            this.task = task;
+            this.enqueued = enqueued;
+        }
+
+        @Override
+        public void run() {
+            pending.remove(this);
+            DispatcherMonitor.this.run(task);
+        }
+    }
+
+    private static final class Combined implements DispatcherMXBean {
+
+        private final String dispatcher;
+        private final DispatcherMXBean[] monitors;
+
+        Combined(String dispatcher, DispatcherMXBean[] monitors) {
+            this.dispatcher = dispatcher;
+            this.monitors = monitors;
+        }
+
+        @Override
+        public String getDispatcher() {
+            return dispatcher;
+        }
+
+        @Override
+        public boolean isEnabled() {
+            for (DispatcherMXBean monitor : monitors) {
+                if (!monitor.isEnabled()) return false;
+            }
+            return true;
+        }
+
+        @Override
+        public void setEnabled( boolean enabled ) {
+            for (DispatcherMXBean monitor : monitors) {
+                monitor.setEnabled(enabled);
+            }
+        }
+
+        @Override
+        public int getQueueDepth() {
+            int depth = 0;
+            for (DispatcherMXBean monitor : monitors) {
+                depth += monitor.getQueueDepth();
+            }
+            return depth;
+        }
+
+        @Override
+        public long getOldestEventAgeMillis() {
+            long age = 0;
+            for (DispatcherMXBean monitor : monitors) {
+                age = Math.max(age, monitor.getOldestEventAgeMillis());
+            }
+            return age;
+        }
+
+        @Override
+        public long getCompleted() {
+            long total = 0;
+            for (DispatcherMXBean monitor : monitors) {
+                total += monitor.getCompleted();
+            }
+            return total;
+        }
+
+        @Override
+        public double getThroughput() {
+            double total = 0;
+            for (DispatcherMXBean monitor : monitors) {
+                total += monitor.getThroughput();
+            }
+            return total;
+        }
+
+        @Override
+        public double getBusyRatio() {
+            double total = 0;
+            for (DispatcherMXBean monitor : monitors) {
+                total += monitor.getBusyRatio();
+            }
+            return total;
+        }
+    }
+
+}
@@ -0,0 +1,176 @@
+package com.ricardojlrufino.eventbus.dispatcher;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.ForkJoinWorkerThread;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import com.ricardojlrufino.eventbus.DispatcherMXBean;
+import com.ricardojlrufino.eventbus.EventBusListener;
+import com.ricardojlrufino.eventbus.EventDispatcher;
+import com.ricardojlrufino.eventbus.EventHandler;
+import com.ricardojlrufino.eventbus.EventMessage;
+
+/**
+ * Runs the handlers of an event in parallel on a {@link ForkJoinPool}, and spreads the events over the cores with work stealing. <br/>
+ * Use only for event types whose handlers are independent of each other, there is no order between handlers or between events. <br/>
+ *
+ * In join mode, {@link com.ricardojlrufino.eventbus.EventBus#notify(EventMessage)} returns only after every handler of the event has finished.
+ */
+public class ForkJoinEventDispatcher implements EventDispatcher {
+
+    private final ForkJoinPool pool;
+    private final boolean join;
+    private final boolean ownPool;
+    private final DispatcherMonitor monitor = new DispatcherMonitor(ForkJoinEventDispatcher.class);
+
+    /**
+     * Uses a new pool with one thread per core, without join.
+     */
+    public ForkJoinEventDispatcher() {
+        this(Runtime.getRuntime().availableProcessors(), false);
+    }
+
+    /**
+     * @param parallelism Number of threads of the pool
+     * @param join If the caller waits for the handlers to finish
+     */
+    public ForkJoinEventDispatcher(int parallelism, boolean join) {
+        this.pool = new ForkJoinPool(parallelism, new WorkerThreadFactory("ForkJoinEventDispatcher"), null, true);
+        this.join = join;
+        this.ownPool = true;
+    }
+
+    /**
+     * Uses an existing pool, for example {@link ForkJoinPool#commonPool()}. The pool is not shut down by this dispatcher.
+     * @param join If the caller waits for the handlers to finish
+     */
+    public ForkJoinEventDispatcher(ForkJoinPool pool, boolean join) {
+        this.pool = pool;
+        this.join = join;
+        this.ownPool = false;
+    }
+
+    @Override
+    public <E extends EventMessage> void dispatch( E event , EventHandler<E> handler , EventBusListener busListener ) {
+        run(new HandlerAction<>(event, handler, busListener));
+    }
+
+    @Override
+    public <E extends EventMessage> void dispatchAll( E event , EventHandler<E>[] handlers , EventBusListener busListener ) {
+        if (handlers.length == 1) {
+            run(new HandlerAction<>(event, handlers[0], busListener));
+        } else {
+            run(new FanOutTask<>(event, handlers, busListener));
+        }
+    }
+
+    private void run( ForkJoinTask<?> handlerTask ) {
+        ForkJoinTask<?> task = (monitor.isEnabled() ? ForkJoinTask.adapt(monitor.track(handlerTask::invoke)) : handlerTask);
+
+        if (!join) {
+            pool.execute(task);
+        } else if (ForkJoinTask.inForkJoinPool() && ForkJoinTask.getPool() == pool) {
+            // Event notified from a handler of this pool: run it here, helping the pool instead of blocking a worker.
+            task.invoke();
+        } else {
+            pool.invoke(task);
+        }
+    }
+
+    @Override
+    public DispatcherMXBean getMonitor() {
+        return monitor;
+    }
+
+    @Override
+    public void shutdown( boolean wait , long millis ) {
+        if (!ownPool) {
+            if (wait) pool.awaitQuiescence(millis, TimeUnit.MILLISECONDS);
+            return;
+        }
+
+        pool.shutdown();
+
+        if (wait) {
+            try {
+                if (!pool.awaitTermination(millis, TimeUnit.MILLISECONDS)) {
+                    pool.shutdownNow();
+                }
+            } catch (InterruptedException e) {
+                pool.shutdownNow();
+            }
+        }
+    }
+
+    /**
+     * Runs one handler of the event, an exception of a listener callback is reported to {@link EventBusListener#onError}.
+     */
+    private static final class HandlerAction<E extends EventMessage> extends RecursiveAction {
+
+        private static final long serialVersionUID = 1L;
+
+        private final E event;
+        private final EventHandler<E> handler;
+        private final EventBusListener busListener;
+
+        HandlerAction(E event, EventHandler<E> handler, EventBusListener busListener) {
+            this.event = event;
+            this.handler = handler;
+            this.busListener = busListener;
+        }
+
+        @Override
+        protected void compute() {
+            HandlerInvoker.invokeGuarded(event, handler, null, busListener);
+        }
+    }
+
+    /**
+     * Forks one {@link HandlerAction} per handler, idle workers steal them.
+     */
+    private static final class FanOutTask<E extends EventMessage> extends RecursiveAction {
+
+        private static final long serialVersionUID = 1L;
+
+        private final E event;
+        private final EventHandler<E>[] handlers;
+        private final EventBusListener busListener;
+
+        FanOutTask(E event, EventHandler<E>[] handlers, EventBusListener busListener) {
+            this.event = event;
+            this.handlers = handlers;
+            this.busListener = busListener;
+        }
+
+        @Override
+        protected void compute() {
+            HandlerAction<?>[] tasks = new HandlerAction<?>[handlers.length];
+            for (int i = 0; i < handlers.length; i++) {
+                tasks[i] = new HandlerAction<>(event, handlers[i], busListener);
+            }
+            invokeAll(tasks);
+        }
+    }
+
+    static class WorkerThreadFactory implements ForkJoinPool.ForkJoinWorkerThreadFactory {
+
+        private final String name;
+        private final AtomicInteger count = new AtomicInteger();
+
+        WorkerThreadFactory(String name) {
+            this.name = name;
+        }
+
+        @Override
+        public ForkJoinWorkerThread newThread( ForkJoinPool pool ) {
+            ForkJoinWorkerThread thread = ForkJoinPool.defaultForkJoinWorkerThreadFactory.newThread(pool);
+            thread.setDaemon(true);
+            thread.setName(name + "-" + count.incrementAndGet());
+            return thread;
+        }
+    }
+
+}
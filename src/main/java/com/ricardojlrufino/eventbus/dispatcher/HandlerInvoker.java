@@ -0,0 +1,128 @@
+package com.ricardojlrufino.eventbus.dispatcher;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import com.ricardojlrufino.eventbus.BatchEventHandler;
+import com.ricardojlrufino.eventbus.CancellableEvent;
+import com.ricardojlrufino.eventbus.EventBusListener;
+import com.ricardojlrufino.eventbus.EventHandler;
+import com.ricardojlrufino.eventbus.EventMessage;
+
+/**
+ * Runs handlers with the {@link EventBusListener} callbacks. An exception in one handler is reported
+ * to {@link EventBusListener#onError(Exception, EventMessage, EventHandler)} and does not affect the others. <br/>
+ * Handlers of a {@link CancellableEvent} that was cancelled are skipped ({@link EventBusListener#eventCancelled(EventMessage, EventHandler)}).
+ */
+final class HandlerInvoker {
+
+    private HandlerInvoker() {
+    }
+
+    static <E extends EventMessage> void invoke( E event , EventHandler<E> handler , EventBusListener busListener ) {
+        if (event instanceof CancellableEvent && ((CancellableEvent) event).isCancelled()) {
+            busListener.eventCancelled(event, handler);
+            return;
+        }
+
+        busListener.beforeRun(event, handler);
+
+        try {
+            handler.onEvent(event);
+        } catch (Exception e) {
+            busListener.onError(e, event, handler);
+        }
+
+        busListener.afterRun(event, handler);
+    }
+
+    /**
+     * Cancelled events are reported with {@link EventBusListener#eventCancelled(EventMessage, EventHandler)} and left out
+     * of the batch.
+     */
+    static <E extends EventMessage> void invokeBatch( List<E> events , BatchEventHandler<E> handler , EventBusListener busListener ) {
+        events = withoutCancelled(events, handler, busListener);
+        if (events.isEmpty()) return;
+
+        busListener.beforeRunBatch(events, handler);
+
+        try {
+            handler.onBatch(events);
+        } catch (Exception e) {
+            busListener.onBatchError(e, events, handler);
+        }
+
+        busListener.afterRunBatch(events, handler);
+    }
+
+    /**
+     * For a worker thread, like {@link #invokeGuarded(EventMessage, EventHandler, EventHandler[], EventBusListener)}:
+     * an exception thrown by a listener callback is reported to
+     * {@link EventBusListener#onBatchError(Exception, List, BatchEventHandler)}.
+     */
+    static <E extends EventMessage> void invokeBatchGuarded( List<E> events , BatchEventHandler<E> handler , EventBusListener busListener ) {
+        try {
+            invokeBatch(events, handler, busListener);
+        } catch (RuntimeException e) {
+            try {
+                busListener.onBatchError(e, events, handler);
+            } catch (RuntimeException again) {
+                // onBatchError itself failed, there is nobody else to report it to
+            }
+        }
+    }
+
+    private static <E extends EventMessage> List<E> withoutCancelled( List<E> events , BatchEventHandler<E> handler , EventBusListener busListener ) {
+        List<E> kept = null;
+        for (int i = 0; i < events.size(); i++) {
+            E event = events.get(i);
+            if (event instanceof CancellableEvent && ((CancellableEvent) event).isCancelled()) {
+                // Copy on the first cancelled one only
+                if (kept == null) kept = new ArrayList<>(events.subList(0, i));
+                busListener.eventCancelled(event, handler);
+            } else if (kept != null) {
+                kept.add(event);
+            }
+        }
+        return (kept != null ? kept : events);
+    }
+
+    /**
+     * Run the handlers in order, on the current thread.
+     */
+    static <E extends EventMessage> void invokeAll( E event , EventHandler<E>[] handlers , EventBusListener busListener ) {
+        for (EventHandler<E> handler : handlers) {
+            invoke(event, handler, busListener);
+        }
+    }
+
+    /**
+     * For the worker loop of a dispatcher: runs the handler, or all the handlers when <code>handlers</code> is not null.
+     * An exception thrown by a listener callback is also reported to {@link EventBusListener#onError(Exception, EventMessage, EventHandler)},
+     * so the other handlers still run and the worker keeps going.
+     */
+    @SuppressWarnings({ "rawtypes", "unchecked" })
+    static void invokeGuarded( EventMessage event , EventHandler handler , EventHandler[] handlers , EventBusListener busListener ) {
+        if (handlers == null) {
+            invokeGuarded(event, handler, busListener);
+            return;
+        }
+
+        for (EventHandler each : handlers) {
+            invokeGuarded(event, each, busListener);
+        }
+    }
+
+    private static <E extends EventMessage> void invokeGuarded( E event , EventHandler<E> handler , EventBusListener busListener ) {
+        try {
+            invoke(event, handler, busListener);
+        } catch (RuntimeException e) {
+            try {
+                busListener.onError(e, event, handler);
+            } catch (RuntimeException again) {
+                // onError itself failed, there is nobody else to report it to
+            }
+        }
+    }
+
+}
@@ -0,0 +1,51 @@
+package com.ricardojlrufino.eventbus.dispatcher;
+
+import com.ricardojlrufino.eventbus.EventBusListener;
+import com.ricardojlrufino.eventbus.EventDispatcher;
+import com.ricardojlrufino.eventbus.EventHandler;
+import com.ricardojlrufino.eventbus.EventMessage;
+
+/**
+ * An event with its handler, or all its handlers, and the listener of the notify: what a dispatcher keeps in its
+ * own queue until the event runs.
+ */
+@SuppressWarnings({ "rawtypes", "unchecked" })
+class HandlerTask implements Runnable {
+
+    final EventMessage event;
+    final EventHandler handler;
+    final EventHandler[] handlers;
+    final EventBusListener listener;
+
+    HandlerTask(EventMessage event, EventHandler handler, EventHandler[] handlers, EventBusListener listener) {
+        this.event = event;
+        this.handler = handler;
+        this.handlers = handlers;
+        this.listener = listener;
+    }
+
+    @Override
+    public void run() {
+        if (handlers != null) {
+            HandlerInvoker.invokeAll(event, handlers, listener);
+        } else {
+            HandlerInvoker.invoke(event, handler, listener);
+        }
+    }
+
+    /**
+     * Like {@link #run()}, for a worker thread: exceptions of the listener are reported to it, see {@link HandlerInvoker#invokeGuarded}.
+     */
+    void runGuarded() {
+        HandlerInvoker.invokeGuarded(event, handler, handlers, listener);
+    }
+
+    void ignored( EventDispatcher dispatcher , String reason ) {
+        if (handlers != null) {
+            listener.eventIgnored(event, dispatcher, reason, handlers.length);
+        } else {
+            listener.eventIgnored(event, dispatcher, reason);
+        }
+    }
+
+}
@@ -0,0 +1,189 @@
+package com.ricardojlrufino.eventbus.dispatcher;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import com.ricardojlrufino.eventbus.DispatcherMXBean;
+import com.ricardojlrufino.eventbus.EventBus;
+import com.ricardojlrufino.eventbus.EventBusListener;
+import com.ricardojlrufino.eventbus.EventDispatcher;
+import com.ricardojlrufino.eventbus.EventHandler;
+import com.ricardojlrufino.eventbus.EventKeyExtractor;
+import com.ricardojlrufino.eventbus.EventMessage;
+import com.ricardojlrufino.eventbus.KeyedEventDispatcher;
+
+/**
+ * Trailing edge debounce, per key: the event is delivered only after no other event of the same key arrived for the delay,
+ * and the delivered event is the latest one. Replaced events are reported as {@link #MESSAGE_DEBOUNCED}. <br/>
+ *
+ * Unlike {@link DebounceEventDispatcher}, no thread sleeps: the delays of all keys (and all dispatchers) are scheduled on
+ * one shared timer thread, and the handlers run on the thread of this dispatcher.
+ * Without a key extractor, the whole event type is debounced as one key.
+ *
+ * <pre>
+ * EventBus.configDispatcher(EventBoardChange.class, new KeyedDebounceEventDispatcher(EventBoardChange.class, 300), event -&gt; event.getBoard());
+ * </pre>
+ *
+ * @see EventBus#configDispatcher(Class, KeyedEventDispatcher, EventKeyExtractor)
+ */
+public class KeyedDebounceEventDispatcher implements KeyedEventDispatcher {
+
+    public static final String MESSAGE_DEBOUNCED = "DEBOUNCED";
+
+    /** The delay ended after the dispatcher was shut down */
+    public static final String MESSAGE_SHUTDOWN = "SHUTDOWN";
+
+    private final ExecutorService executor;
+    private final DispatcherMonitor monitor = new DispatcherMonitor(KeyedDebounceEventDispatcher.class);
+    private final long delayNanos;
+
+    private final Map<Object, Pending> pending = new ConcurrentHashMap<>();
+
+    public KeyedDebounceEventDispatcher(long delayMillis) {
+        this("KeyedDebounceEventDispatcher", delayMillis);
+    }
+
+    public KeyedDebounceEventDispatcher(Class<?> event, long delayMillis) {
+        this(event.getSimpleName(), delayMillis);
+    }
+
+    private KeyedDebounceEventDispatcher(String name, long delayMillis) {
+        this.delayNanos = TimeUnit.MILLISECONDS.toNanos(delayMillis);
+        this.executor = Executors.newSingleThreadExecutor(new SingleThreadEventDispatcher.ThreadFactoryImpl(name));
+    }
+
+    @Override
+    public <E extends EventMessage> void dispatch( E event , Object key , EventHandler<E> handler , EventBusListener busListener ) {
+        debounce(key, new HandlerTask(event, handler, null, busListener));
+    }
+
+    @Override
+    public <E extends EventMessage> void dispatchAll( E event , Object key , EventHandler<E>[] handlers , EventBusListener busListener ) {
+        debounce(key, new HandlerTask(event, null, handlers, busListener));
+    }
+
+    private void debounce( Object key , HandlerTask task ) {
+        if (executor.isShutdown()) throw new RejectedExecutionException("Dispatcher has been shut down");
+
+        long now = System.nanoTime();
+
+        while (true) {
+            Pending current = pending.get(key);
+
+            if (current == null) {
+                Pending created = new Pending(task, now);
+                if (pending.putIfAbsent(key, created) == null) {
+                    schedule(key, created, delayNanos);
+                    return;
+                }
+                continue;
+            }
+
+            HandlerTask replaced;
+            synchronized (current) {
+                // Already delivered, start a new one
+                if (current.done) continue;
+
+                replaced = current.task;
+                current.task = task;
+                current.lastUpdate = now;
+            }
+
+            replaced.ignored(this, MESSAGE_DEBOUNCED);
+            return;
+        }
+    }
+
+    private void schedule( Object key , Pending current , long nanos ) {
+        SharedTimer.get().schedule(() -> fire(key, current), nanos, TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * Timer: deliver the latest event, or wait again if another event arrived during the delay.
+     */
+    private void fire( Object key , Pending current ) {
+        HandlerTask task;
+        synchronized (current) {
+            if (current.done) return;
+
+            long remaining = current.lastUpdate + delayNanos - System.nanoTime();
+            if (remaining > 0) {
+                schedule(key, current, remaining);
+                return;
+            }
+
+            current.done = true;
+            pending.remove(key, current);
+            task = current.task;
+        }
+
+        Runnable tracked = monitor.track(task);
+        try {
+            executor.execute(tracked);
+        } catch (RejectedExecutionException e) {
+            monitor.dropped(tracked);
+            task.ignored(this, MESSAGE_SHUTDOWN);
+        }
+    }
+
+    /**
+     * Number of keys waiting for the delay
+     */
+    public int size() {
+        return pending.size();
+    }
+
+    @Override
+    public DispatcherMXBean getMonitor() {
+        return monitor;
+    }
+
+    /**
+     * The events waiting for the delay are delivered immediately, then the dispatcher thread is shut down.
+     */
+    @Override
+    public void shutdown( boolean wait , long millis ) {
+        for (Map.Entry<Object, Pending> entry : pending.entrySet()) {
+            Pending current = entry.getValue();
+            HandlerTask task;
+            synchronized (current) {
+                if (current.done) continue;
+                current.done = true;
+                pending.remove(entry.getKey(), current);
+                task = current.task;
+            }
+            executor.execute(monitor.track(task));
+        }
+
+        executor.shutdown();
+
+        if (wait) {
+            try {
+                if (!executor.awaitTermination(millis, TimeUnit.MILLISECONDS)) {
+                    executor.shutdownNow();
+                }
+            } catch (InterruptedException e) {
+                executor.shutdownNow();
+            }
+        }
+    }
+
+    /**
+     * Latest event of a key, waiting for the delay. Guarded by its own lock.
+     */
+    private static final class Pending {
+        HandlerTask task;
+        long lastUpdate;
+        boolean done;
+
+        Pending(HandlerTask task, long lastUpdate) {
+            this.task = task;
+            this.lastUpdate = lastUpdate;
+        }
+    }
+
+}
@@ -0,0 +1,109 @@
+package com.ricardojlrufino.eventbus.dispatcher;
+
+import java.util.Arrays;
+import java.util.function.Supplier;
+
+import com.ricardojlrufino.eventbus.DispatcherMXBean;
+import com.ricardojlrufino.eventbus.EventBus;
+import com.ricardojlrufino.eventbus.EventBusListener;
+import com.ricardojlrufino.eventbus.EventDispatcher;
+import com.ricardojlrufino.eventbus.EventHandler;
+import com.ricardojlrufino.eventbus.EventKeyExtractor;
+import com.ricardojlrufino.eventbus.EventMessage;
+import com.ricardojlrufino.eventbus.KeyedEventDispatcher;
+
+/**
+ * Spreads the events over N lanes, each one a single threaded dispatcher, by the hash of the event key. <br/>
+ * Events with the same key always go to the same lane, so they run in order, while events of different keys run in parallel.
+ *
+ * <pre>
+ * EventBus.configDispatcher(AccountEvent.class, new PartitionedEventDispatcher(AccountEvent.class, 8), event -&gt; event.getAccountId());
+ * </pre>
+ *
+ * @see EventBus#configDispatcher(Class, KeyedEventDispatcher, EventKeyExtractor)
+ */
+public class PartitionedEventDispatcher implements KeyedEventDispatcher {
+
+    private final EventDispatcher[] lanes;
+    private final DispatcherMXBean monitor;
+
+    /**
+     * Create the lanes with {@link SingleThreadEventDispatcher}
+     */
+    public PartitionedEventDispatcher(int lanes) {
+        this(lanes, SingleThreadEventDispatcher::newInstance);
+    }
+
+    /**
+     * Create the lanes with {@link SingleThreadEventDispatcher}, named after the event
+     */
+    public PartitionedEventDispatcher(Class<?> event, int lanes) {
+        this(lanes, () -> new SingleThreadEventDispatcher(event));
+    }
+
+    /**
+     * @param laneFactory Creates the dispatcher of each lane. It must run the events in order, on a single thread.
+     * For example, a {@link RingBufferEventDispatcher}.
+     */
+    public PartitionedEventDispatcher(int lanes, Supplier<EventDispatcher> laneFactory) {
+        if (lanes < 1) throw new IllegalArgumentException("lanes must be > 0");
+
+        this.lanes = new EventDispatcher[lanes];
+        for (int i = 0; i < lanes; i++) {
+            this.lanes[i] = laneFactory.get();
+        }
+
+        DispatcherMXBean[] monitors = new DispatcherMXBean[lanes];
+        for (int i = 0; i < lanes; i++) {
+            monitors[i] = this.lanes[i].getMonitor();
+        }
+        this.monitor = (Arrays.asList(monitors).contains(null) ? null : DispatcherMonitor.combine(PartitionedEventDispatcher.class, monitors));
+    }
+
+    @Override
+    public <E extends EventMessage> void dispatch( E event , Object key , EventHandler<E> handler , EventBusListener busListener ) {
+        lane(key).dispatch(event, handler, busListener);
+    }
+
+    @Override
+    public <E extends EventMessage> void dispatchAll( E event , Object key , EventHandler<E>[] handlers , EventBusListener busListener ) {
+        lane(key).dispatchAll(event, handlers, busListener);
+    }
+
+    private EventDispatcher lane( Object key ) {
+        if (key == null) return lanes[0];
+
+        int h = key.hashCode();
+        h ^= (h >>> 16);
+        return lanes[(h & 0x7fffffff) % lanes.length];
+    }
+
+    /**
+     * Number of lanes
+     */
+    public int size() {
+        return lanes.length;
+    }
+
+    /**
+     * Sum of the lanes, null if a lane has no monitor
+     */
+    @Override
+    public DispatcherMXBean getMonitor() {
+        return monitor;
+    }
+
+    @Override
+    public void shutdown( boolean wait , long millis ) {
+        for (EventDispatcher lane : lanes) {
+            lane.shutdown(false, millis);
+        }
+
+        if (wait) {
+            for (EventDispatcher lane : lanes) {
+                lane.shutdown(true, millis);
+            }
+        }
+    }
+
+}
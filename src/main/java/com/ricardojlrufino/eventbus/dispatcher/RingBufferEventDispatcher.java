@@ -0,0 +1,241 @@
+package com.ricardojlrufino.eventbus.dispatcher;
+
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongFieldUpdater;
+import java.util.concurrent.locks.LockSupport;
+
+import com.ricardojlrufino.eventbus.DispatcherMXBean;
+import com.ricardojlrufino.eventbus.EventBusListener;
+import com.ricardojlrufino.eventbus.EventDispatcher;
+import com.ricardojlrufino.eventbus.EventHandler;
+import com.ricardojlrufino.eventbus.EventMessage;
+
+/**
+ * Runs the events on a single thread, like {@link SingleThreadEventDispatcher}, but the events are handed over
+ * through a ring buffer of preallocated slots instead of a {@link java.util.concurrent.LinkedBlockingQueue}. <br/>
+ * Publishing an event does not allocate and does not take locks: the producer claims a sequence, fills the slot and publishes it.
+ * When the buffer is full the producer waits until the worker frees a slot. <br/>
+ *
+ * Use {@link ProducerType#SINGLE} only when a single thread notifies the events of this dispatcher, it avoids the atomic claim.
+ *
+ * The worker thread spins, then yields and then parks, for longer each time (up to 10ms) while it has no events.
+ * A publish wakes up a parked worker. <br/>
+ *
+ * On shutdown the worker runs all the events claimed before it, an event claimed after it is rejected
+ * ({@link RejectedExecutionException}).
+ */
+public class RingBufferEventDispatcher implements EventDispatcher {
+
+    public enum ProducerType {
+        /** Only one thread notifies the events */
+        SINGLE,
+        /** Any number of threads notify the events */
+        MULTI
+    }
+
+    private static final int SPIN_TRIES = 100;
+    private static final int YIELD_TRIES = 100;
+    private static final long MIN_PARK_NANOS = 50_000;
+    private static final long MAX_PARK_NANOS = 10_000_000;
+
+    private static final AtomicLongFieldUpdater<Slot> SEQUENCE = AtomicLongFieldUpdater.newUpdater(Slot.class, "sequence");
+
+    private final Slot[] slots;
+    private final int mask;
+    private final ProducerType producerType;
+
+    /** Last claimed sequence */
+    private final AtomicLong cursor = new AtomicLong(-1);
+
+    /** Last sequence processed by the worker */
+    private final AtomicLong consumed = new AtomicLong(-1);
+
+    private final Thread worker;
+    private final DispatcherMonitor monitor;
+
+    private volatile boolean running = true;
+
+    /** Set while the worker parks, so a publish wakes it up */
+    private volatile boolean parked;
+
+    public RingBufferEventDispatcher(int bufferSize, ProducerType producerType) {
+        this("RingBufferEventDispatcher", bufferSize, producerType);
+    }
+
+    public RingBufferEventDispatcher(Class<?> event, int bufferSize, ProducerType producerType) {
+        this(event.getSimpleName(), bufferSize, producerType);
+    }
+
+    private RingBufferEventDispatcher(String name, int bufferSize, ProducerType producerType) {
+        if (bufferSize < 1 || Integer.bitCount(bufferSize) != 1) {
+            throw new IllegalArgumentException("bufferSize must be a power of 2: " + bufferSize);
+        }
+
+        this.slots = new Slot[bufferSize];
+        for (int i = 0; i < bufferSize; i++) {
+            slots[i] = new Slot();
+        }
+        this.mask = bufferSize - 1;
+        this.producerType = producerType;
+        this.monitor = new DispatcherMonitor(RingBufferEventDispatcher.class, new DispatcherMonitor.Probe() {
+            @Override
+            public int depth() {
+                return (int) Math.max(0, cursor.get() - consumed.get());
+            }
+
+            @Override
+            public long oldestEnqueued() {
+                long next = consumed.get() + 1;
+                Slot slot = slots[(int) next & mask];
+                return (slot.sequence == next ? slot.published : 0);
+            }
+        });
+
+        this.worker = new SingleThreadEventDispatcher.ThreadFactoryImpl(name).newThread(this::processEvents);
+        this.worker.start();
+    }
+
+    @Override
+    public <E extends EventMessage> void dispatch( E event , EventHandler<E> handler , EventBusListener busListener ) {
+        long sequence = next();
+        Slot slot = slots[(int) sequence & mask];
+        slot.event = event;
+        slot.handler = handler;
+        slot.listener = busListener;
+        slot.published = monitor.now();
+        publish(slot, sequence);
+    }
+
+    @Override
+    public <E extends EventMessage> void dispatchAll( E event , EventHandler<E>[] handlers , EventBusListener busListener ) {
+        long sequence = next();
+        Slot slot = slots[(int) sequence & mask];
+        slot.event = event;
+        slot.handlers = handlers;
+        slot.listener = busListener;
+        slot.published = monitor.now();
+        publish(slot, sequence);
+    }
+
+    /**
+     * Claims the next sequence, waiting while the slot is still in use by the worker.
+     */
+    private long next() {
+        if (!running) throw new RejectedExecutionException("Dispatcher has been shut down");
+
+        long sequence;
+        if (producerType == ProducerType.SINGLE) {
+            // Not lazySet: publish() reads running after it, see there
+            sequence = cursor.get() + 1;
+            cursor.set(sequence);
+        } else {
+            sequence = cursor.incrementAndGet();
+        }
+
+        long wrapPoint = sequence - slots.length;
+        while (wrapPoint > consumed.get()) {
+            if (!worker.isAlive()) throw new RejectedExecutionException("Dispatcher has been shut down");
+            LockSupport.parkNanos(1);
+        }
+
+        return sequence;
+    }
+
+    /**
+     * Publishes the claimed slot. A claim that happened before {@link #shutdown(boolean, long)} is seen by the worker
+     * before it stops, so running is checked again after the claim: if the dispatcher was shut down meanwhile, the worker
+     * may already be gone. The slot is still published, in case the worker waits for it, but skipped.
+     */
+    private void publish( Slot slot , long sequence ) {
+        boolean rejected = !running;
+        slot.rejected = rejected;
+        SEQUENCE.lazySet(slot, sequence);
+
+        if (rejected) throw new RejectedExecutionException("Dispatcher has been shut down");
+        if (parked) LockSupport.unpark(worker);
+    }
+
+    private void processEvents() {
+        long next = consumed.get() + 1;
+        int idle = 0;
+        long parkNanos = MIN_PARK_NANOS;
+
+        while (!Thread.currentThread().isInterrupted()) {
+            Slot slot = slots[(int) next & mask];
+
+            if (slot.sequence == next) {
+                if (!slot.rejected) {
+                    long begin = monitor.begin();
+                    HandlerInvoker.invokeGuarded(slot.event, slot.handler, slot.handlers, slot.listener);
+                    monitor.end(begin);
+                }
+
+                slot.event = null;
+                slot.handler = null;
+                slot.handlers = null;
+                slot.listener = null;
+                consumed.lazySet(next);
+
+                next++;
+                idle = 0;
+                parkNanos = MIN_PARK_NANOS;
+            } else if (!running && cursor.get() < next) {
+                // Shutdown and all claimed events were processed
+                return;
+            } else if (idle < SPIN_TRIES) {
+                idle++;
+            } else if (idle < SPIN_TRIES + YIELD_TRIES) {
+                idle++;
+                Thread.yield();
+            } else {
+                parked = true;
+                // A publish before parked was set did not wake this thread
+                if (slot.sequence != next && running) LockSupport.parkNanos(parkNanos);
+                parked = false;
+                parkNanos = Math.min(parkNanos * 2, MAX_PARK_NANOS);
+            }
+        }
+    }
+
+    @Override
+    public DispatcherMXBean getMonitor() {
+        return monitor;
+    }
+
+    @Override
+    public void shutdown( boolean wait , long millis ) {
+        running = false;
+        LockSupport.unpark(worker);
+
+        if (wait) {
+            try {
+                worker.join(millis);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+
+            if (worker.isAlive()) {
+                worker.interrupt();
+            }
+        }
+    }
+
+    /**
+     * Reusable entry of the ring. The fields are written by the producer before the sequence is published and
+     * cleared by the worker before the slot is released.
+     */
+    @SuppressWarnings("rawtypes")
+    static final class Slot {
+        EventMessage event;
+        EventHandler handler;
+        EventHandler[] handlers;
+        EventBusListener listener;
+        /** {@link DispatcherMonitor#now()} when published */
+        long published;
+        /** Published after shutdown, the worker skips it */
+        boolean rejected;
+        volatile long sequence = -1;
+    }
+
+}
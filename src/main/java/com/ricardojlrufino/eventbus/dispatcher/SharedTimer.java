@@ -0,0 +1,33 @@
+package com.ricardojlrufino.eventbus.dispatcher;
+
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+
+/**
+ * A single daemon timer thread, shared by all the dispatchers that need delays. <br/>
+ * Timer tasks must be short: they only decide what to run and hand the handlers over to the dispatcher thread.
+ * The timer is never shut down.
+ */
+final class SharedTimer {
+
+    private static volatile ScheduledThreadPoolExecutor timer;
+
+    private SharedTimer() {
+    }
+
+    static ScheduledExecutorService get() {
+        ScheduledThreadPoolExecutor instance = timer;
+        if (instance == null) {
+            synchronized (SharedTimer.class) {
+                instance = timer;
+                if (instance == null) {
+                    instance = new ScheduledThreadPoolExecutor(1, new SingleThreadEventDispatcher.ThreadFactoryImpl("EventBusTimer"));
+                    instance.setRemoveOnCancelPolicy(true);
+                    timer = instance;
+                }
+            }
+        }
+        return instance;
+    }
+
+}
@@ -1,13 +1,14 @@
 package com.ricardojlrufino.eventbus.dispatcher;
 
-import java.util.HashMap;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
 import java.util.concurrent.ThreadFactory;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicInteger;
 
+import com.ricardojlrufino.eventbus.DispatcherMXBean;
 import com.ricardojlrufino.eventbus.EventBusListener;
 import com.ricardojlrufino.eventbus.EventDispatcher;
 import com.ricardojlrufino.eventbus.EventHandler;
@@ -17,6 +18,8 @@ public class SingleThreadEventDispatcher implements EventDispatcher {
 
     private ExecutorService executor;
     
+    private final DispatcherMonitor monitor = new DispatcherMonitor(SingleThreadEventDispatcher.class);
+    
     private SingleThreadEventDispatcher() {
         executor = Executors.newSingleThreadExecutor(new ThreadFactoryImpl("SingleThreadEventDispatcher"));
     }
@@ -34,20 +37,30 @@ public class SingleThreadEventDispatcher implements EventDispatcher {
 
     @Override
     public <E extends EventMessage> void dispatch( E event , EventHandler<E> handler , EventBusListener busListener ) {
-        executor.execute(new Runnable() {
+        executor.execute(monitor.track(new Runnable() {
             @Override
             public void run() {
-                busListener.beforeRun(event, handler);
-                
-                try {
-                    handler.onEvent(event);
-                } catch (Exception e) {
-                    busListener.onError(e, event, handler);
-                }
-                
-                busListener.afterRun(event, handler);
+                HandlerInvoker.invoke(event, handler, busListener);
             }
-        });
+        }));
+    }
+    
+    /**
+     * Queue a single task that runs all handlers in order.
+     */
+    @Override
+    public <E extends EventMessage> void dispatchAll( E event , EventHandler<E>[] handlers , EventBusListener busListener ) {
+        executor.execute(monitor.track(new Runnable() {
+            @Override
+            public void run() {
+                HandlerInvoker.invokeAll(event, handlers, busListener);
+            }
+        }));
+    }
+
+    @Override
+    public DispatcherMXBean getMonitor() {
+        return monitor;
     }
 
     @Override
@@ -67,14 +80,13 @@ public class SingleThreadEventDispatcher implements EventDispatcher {
 
     static class ThreadFactoryImpl implements ThreadFactory {
         
-        private static Map<String, AtomicInteger> count = new HashMap<>();
+        private static Map<String, AtomicInteger> count = new ConcurrentHashMap<>();
 
         private String name;
 
         public ThreadFactoryImpl(String name) {
             super();
-            AtomicInteger integer = count.get(name);
-            if(integer == null) integer = new AtomicInteger(0);
+            AtomicInteger integer = count.computeIfAbsent(name, key -> new AtomicInteger(0));
             int index = integer.incrementAndGet();
             this.name = name + "-" + index;
         }
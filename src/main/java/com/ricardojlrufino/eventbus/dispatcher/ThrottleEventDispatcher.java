@@ -0,0 +1,311 @@
+package com.ricardojlrufino.eventbus.dispatcher;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+import com.ricardojlrufino.eventbus.DispatcherMXBean;
+import com.ricardojlrufino.eventbus.EventBusListener;
+import com.ricardojlrufino.eventbus.EventHandler;
+import com.ricardojlrufino.eventbus.EventMessage;
+import com.ricardojlrufino.eventbus.KeyedEventDispatcher;
+
+/**
+ * Limits the rate of events, for handlers that call services that accept at most N calls per second. <br/>
+ * The limit is a token bucket (GCRA: one {@link AtomicLong} per bucket, no locks), with up to <code>burst</code> events
+ * accepted at once. The limit is shared by all the events of this dispatcher, or applied for each key when <code>perKey</code>
+ * is set (the key of the {@link com.ricardojlrufino.eventbus.EventKeyExtractor}, or the event type). <br/>
+ *
+ * The events over the limit are handled by the {@link OverflowPolicy}. Waiting events do not hold a thread: they are
+ * scheduled on the shared timer, and the handlers run on the thread of this dispatcher. With {@link OverflowPolicy#QUEUE},
+ * at most <code>maxQueued</code> events wait (for each key with <code>perKey</code>), the others are dropped
+ * ({@link #MESSAGE_THROTTLED}); the default is {@value #DEFAULT_MAX_QUEUED}.
+ * On shutdown, the waiting events are dropped ({@link #MESSAGE_THROTTLED}). <br/>
+ *
+ * With <code>perKey</code>, a bucket is kept only while its key is limited: when the map of buckets has doubled since
+ * the last sweep, the buckets that are full again (no token taken within the burst window) and have no waiting event
+ * are removed, a new event of the key starts a full bucket, as it would have found it. So the map holds at most about
+ * twice the keys that published within the last <code>burst / permitsPerSecond</code> seconds (or
+ * {@value #MIN_SWEEP} keys, the first sweep).
+ */
+public class ThrottleEventDispatcher implements KeyedEventDispatcher {
+
+    public enum OverflowPolicy {
+        /** The event waits for its turn, in order, if less than <code>maxQueued</code> events are waiting */
+        QUEUE,
+        /** The event is dropped ({@link ThrottleEventDispatcher#MESSAGE_THROTTLED}) */
+        DROP,
+        /** Only the latest event waits for the next token, the previous waiting one is dropped ({@link ThrottleEventDispatcher#MESSAGE_COALESCED}) */
+        COALESCE
+    }
+
+    public static final String MESSAGE_THROTTLED = "THROTTLED";
+
+    public static final String MESSAGE_COALESCED = "COALESCED";
+
+    /** Number of buckets that starts the first sweep of the idle ones */
+    private static final int MIN_SWEEP = 1024;
+
+    public static final int DEFAULT_MAX_QUEUED = 10_000;
+
+    /** Theoretical arrival time of a removed bucket, the events that still hold it must take the new one */
+    private static final long EVICTED = Long.MIN_VALUE;
+
+    /** Returned by reserve() when the queue is full */
+    private static final long FULL = Long.MAX_VALUE;
+
+    private final ExecutorService executor;
+    private final DispatcherMonitor monitor = new DispatcherMonitor(ThrottleEventDispatcher.class);
+    private final OverflowPolicy policy;
+    private final boolean perKey;
+
+    /** Time between two events at the limit rate */
+    private final long intervalNanos;
+    /** How much earlier than its time an event can run (burst) */
+    private final long toleranceNanos;
+    /** Longest wait of a queued event: maxQueued intervals */
+    private final long maxWaitNanos;
+
+    private final Bucket bucket;
+    private final Map<Object, Bucket> buckets = new ConcurrentHashMap<>();
+    private volatile int sweepAt = MIN_SWEEP;
+
+    private volatile boolean running = true;
+
+    public ThrottleEventDispatcher(double permitsPerSecond, OverflowPolicy policy) {
+        this("ThrottleEventDispatcher", permitsPerSecond, 1, policy, false, DEFAULT_MAX_QUEUED);
+    }
+
+    public ThrottleEventDispatcher(Class<?> event, double permitsPerSecond, int burst, OverflowPolicy policy) {
+        this(event.getSimpleName(), permitsPerSecond, burst, policy, false, DEFAULT_MAX_QUEUED);
+    }
+
+    /**
+     * @param permitsPerSecond Maximum rate of events
+     * @param burst Maximum of events accepted at once, after an idle period
+     * @param perKey If the limit applies to each key, instead of all the events
+     */
+    public ThrottleEventDispatcher(Class<?> event, double permitsPerSecond, int burst, OverflowPolicy policy, boolean perKey) {
+        this(event.getSimpleName(), permitsPerSecond, burst, policy, perKey, DEFAULT_MAX_QUEUED);
+    }
+
+    /**
+     * @param permitsPerSecond Maximum rate of events
+     * @param burst Maximum of events accepted at once, after an idle period
+     * @param perKey If the limit applies to each key, instead of all the events
+     * @param maxQueued Maximum of events waiting for a token, with {@link OverflowPolicy#QUEUE}
+     */
+    public ThrottleEventDispatcher(Class<?> event, double permitsPerSecond, int burst, OverflowPolicy policy, boolean perKey, int maxQueued) {
+        this(event.getSimpleName(), permitsPerSecond, burst, policy, perKey, maxQueued);
+    }
+
+    private ThrottleEventDispatcher(String name, double permitsPerSecond, int burst, OverflowPolicy policy, boolean perKey, int maxQueued) {
+        if (permitsPerSecond <= 0) throw new IllegalArgumentException("permitsPerSecond must be > 0");
+        if (burst < 1) throw new IllegalArgumentException("burst must be > 0");
+        if (maxQueued < 0) throw new IllegalArgumentException("maxQueued must be >= 0");
+
+        this.intervalNanos = (long) (TimeUnit.SECONDS.toNanos(1) / permitsPerSecond);
+        this.toleranceNanos = intervalNanos * (burst - 1);
+        this.maxWaitNanos = (maxQueued > Long.MAX_VALUE / Math.max(1, intervalNanos) ? Long.MAX_VALUE - 1 : intervalNanos * maxQueued);
+        this.policy = policy;
+        this.perKey = perKey;
+        this.bucket = perKey ? null : new Bucket(System.nanoTime());
+        this.executor = Executors.newSingleThreadExecutor(new SingleThreadEventDispatcher.ThreadFactoryImpl(name));
+    }
+
+    @Override
+    public <E extends EventMessage> void dispatch( E event , Object key , EventHandler<E> handler , EventBusListener busListener ) {
+        throttle(key, new HandlerTask(event, handler, null, busListener));
+    }
+
+    @Override
+    public <E extends EventMessage> void dispatchAll( E event , Object key , EventHandler<E>[] handlers , EventBusListener busListener ) {
+        throttle(key, new HandlerTask(event, null, handlers, busListener));
+    }
+
+    private void throttle( Object key , HandlerTask task ) {
+        if (!running) throw new RejectedExecutionException("Dispatcher has been shut down");
+
+        long wait;
+        switch (policy) {
+            case QUEUE:
+                do {
+                    wait = reserve(bucketOf(key));
+                } while (wait == EVICTED);
+
+                if (wait == FULL) {
+                    task.ignored(this, MESSAGE_THROTTLED);
+                } else if (wait > 0) {
+                    SharedTimer.get().schedule(() -> execute(task), wait, TimeUnit.NANOSECONDS);
+                } else {
+                    execute(task);
+                }
+                break;
+
+            case DROP:
+                do {
+                    wait = tryAcquire(bucketOf(key));
+                } while (wait == EVICTED);
+
+                if (wait > 0) {
+                    task.ignored(this, MESSAGE_THROTTLED);
+                } else {
+                    execute(task);
+                }
+                break;
+
+            case COALESCE:
+                coalesce(key, task);
+                break;
+        }
+    }
+
+    private void coalesce( Object key , HandlerTask task ) {
+        Bucket target = bucketOf(key);
+        HandlerTask previous = target.waiting.getAndSet(task);
+        if (previous != null) {
+            // Its flush is already scheduled and will take this one
+            previous.ignored(this, MESSAGE_COALESCED);
+        } else {
+            flush(key, target);
+        }
+    }
+
+    private Bucket bucketOf( Object key ) {
+        if (!perKey) return bucket;
+
+        Bucket found = buckets.get(key);
+        if (found == null || found.tat.get() == EVICTED) {
+            if (found != null) buckets.remove(key, found);
+            if (buckets.size() >= sweepAt) sweep();
+            found = buckets.computeIfAbsent(key, k -> new Bucket(System.nanoTime()));
+        }
+        return found;
+    }
+
+    /**
+     * Removes the buckets that are full again and have no waiting event: a new bucket would be the same.
+     */
+    private void sweep() {
+        long now = System.nanoTime();
+        buckets.forEach(( key , target ) -> {
+            long tat = target.tat.get();
+            if (tat != EVICTED && tat - now <= 0 && target.waiting.get() == null && target.tat.compareAndSet(tat, EVICTED)) {
+                buckets.remove(key, target);
+            }
+        });
+        sweepAt = Math.max(MIN_SWEEP, buckets.size() * 2);
+    }
+
+    /**
+     * Takes a token if available.
+     * @return 0 if taken, the time to wait for the next token, or {@link #EVICTED} if the bucket was removed
+     */
+    private long tryAcquire( Bucket target ) {
+        while (true) {
+            long now = System.nanoTime();
+            long tat = target.tat.get();
+            if (tat == EVICTED) return EVICTED;
+            long base = tat - now > 0 ? tat : now;
+
+            long wait = base - toleranceNanos - now;
+            if (wait > 0) return wait;
+
+            if (target.tat.compareAndSet(tat, base + intervalNanos)) return 0;
+        }
+    }
+
+    /**
+     * Takes the next token, even if it is in the future, unless it is more than maxQueued intervals away.
+     * @return the time to wait until the token is valid, 0 if it is valid now, {@link #FULL} if too many events wait,
+     *         or {@link #EVICTED} if the bucket was removed
+     */
+    private long reserve( Bucket target ) {
+        while (true) {
+            long now = System.nanoTime();
+            long tat = target.tat.get();
+            if (tat == EVICTED) return EVICTED;
+            long base = tat - now > 0 ? tat : now;
+
+            long wait = Math.max(0, base - toleranceNanos - now);
+            if (wait > maxWaitNanos) return FULL;
+
+            if (target.tat.compareAndSet(tat, base + intervalNanos)) return wait;
+        }
+    }
+
+    /**
+     * Runs the waiting event of the bucket when a token is available. Only the thread that set the first waiting
+     * event (or the timer, after it) runs this, until the waiting event is taken.
+     */
+    private void flush( Object key , Bucket target ) {
+        if (!running) {
+            HandlerTask task = target.waiting.getAndSet(null);
+            if (task != null) task.ignored(this, MESSAGE_THROTTLED);
+            return;
+        }
+
+        long wait = tryAcquire(target);
+        if (wait == EVICTED) {
+            // Removed by a sweep while this event was set: it waits in the new bucket
+            HandlerTask task = target.waiting.getAndSet(null);
+            if (task != null) coalesce(key, task);
+            return;
+        }
+        if (wait > 0) {
+            SharedTimer.get().schedule(() -> flush(key, target), wait, TimeUnit.NANOSECONDS);
+            return;
+        }
+
+        execute(target.waiting.getAndSet(null));
+    }
+
+    private void execute( HandlerTask task ) {
+        Runnable tracked = monitor.track(task);
+        try {
+            executor.execute(tracked);
+        } catch (RejectedExecutionException e) {
+            monitor.dropped(tracked);
+            task.ignored(this, MESSAGE_THROTTLED);
+        }
+    }
+
+    @Override
+    public DispatcherMXBean getMonitor() {
+        return monitor;
+    }
+
+    @Override
+    public void shutdown( boolean wait , long millis ) {
+        running = false;
+        executor.shutdown();
+
+        if (wait) {
+            try {
+                if (!executor.awaitTermination(millis, TimeUnit.MILLISECONDS)) {
+                    executor.shutdownNow();
+                }
+            } catch (InterruptedException e) {
+                executor.shutdownNow();
+            }
+        }
+    }
+
+    /**
+     * Token bucket state: the theoretical arrival time of the next event at the limit rate.
+     */
+    private static final class Bucket {
+        final AtomicLong tat;
+        final AtomicReference<HandlerTask> waiting = new AtomicReference<>();
+
+        Bucket(long now) {
+            this.tat = new AtomicLong(now);
+        }
+    }
+
+}
@@ -0,0 +1,180 @@
+package com.ricardojlrufino.eventbus.dispatcher;
+
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import com.ricardojlrufino.eventbus.DispatcherMXBean;
+import com.ricardojlrufino.eventbus.EventBusListener;
+import com.ricardojlrufino.eventbus.EventDispatcher;
+import com.ricardojlrufino.eventbus.EventHandler;
+import com.ricardojlrufino.eventbus.EventMessage;
+
+/**
+ * Runs each handler invocation on its own thread, for handlers that block on I/O (JDBC, files, HTTP...). <br/>
+ * On Java 21+ every invocation runs on a new virtual thread. On older versions it falls back to a bounded pool of platform threads. <br/>
+ *
+ * The number of invocations running at the same time is limited per event type. The exceeding ones wait in a queue
+ * of the type (without holding a thread) and start when a running one finishes.
+ * There is no order between the events or the handlers.
+ */
+public class VirtualThreadEventDispatcher implements EventDispatcher {
+
+    public static final String MESSAGE_SHUTDOWN = "SHUTDOWN";
+
+    private final ExecutorService executor;
+    private final int maxConcurrency;
+    private final DispatcherMonitor monitor = new DispatcherMonitor(VirtualThreadEventDispatcher.class);
+
+    private final ClassValue<Lane> lanes = new ClassValue<Lane>() {
+        @Override
+        protected Lane computeValue( Class<?> type ) {
+            return new Lane();
+        }
+    };
+
+    /** Invocations queued or running */
+    private final AtomicInteger outstanding = new AtomicInteger();
+
+    private volatile boolean running = true;
+
+    /**
+     * @param maxConcurrencyPerType Maximum of handler invocations running at the same time, for each event type
+     */
+    public VirtualThreadEventDispatcher(int maxConcurrencyPerType) {
+        this(maxConcurrencyPerType, Math.max(2, Runtime.getRuntime().availableProcessors() * 2));
+    }
+
+    /**
+     * @param maxConcurrencyPerType Maximum of handler invocations running at the same time, for each event type
+     * @param platformThreads Size of the pool used when virtual threads are not available (Java &lt; 21)
+     */
+    public VirtualThreadEventDispatcher(int maxConcurrencyPerType, int platformThreads) {
+        if (maxConcurrencyPerType < 1) throw new IllegalArgumentException("maxConcurrencyPerType must be > 0");
+
+        this.maxConcurrency = maxConcurrencyPerType;
+        this.executor = VirtualThreads.newExecutor("VirtualThreadEventDispatcher", platformThreads);
+    }
+
+    /**
+     * If the handlers run on virtual threads, false when using the platform threads pool.
+     */
+    public boolean isVirtualThreads() {
+        return VirtualThreads.isSupported();
+    }
+
+    @Override
+    public <E extends EventMessage> void dispatch( E event , EventHandler<E> handler , EventBusListener busListener ) {
+        if (!running) throw new RejectedExecutionException("Dispatcher has been shut down");
+
+        Lane lane = lanes.get(event.getClass());
+        submit(lane, new Invocation(event, handler, busListener));
+    }
+
+    @Override
+    public <E extends EventMessage> void dispatchAll( E event , EventHandler<E>[] handlers , EventBusListener busListener ) {
+        if (!running) throw new RejectedExecutionException("Dispatcher has been shut down");
+
+        Lane lane = lanes.get(event.getClass());
+        for (EventHandler<E> handler : handlers) {
+            submit(lane, new Invocation(event, handler, busListener));
+        }
+    }
+
+    private void submit( Lane lane , Invocation invocation ) {
+        outstanding.incrementAndGet();
+        invocation.tracked = monitor.track(invocation);
+        lane.pending.offer(invocation);
+        drain(lane);
+    }
+
+    /**
+     * Start queued tasks of the lane while it is below the concurrency limit.
+     */
+    private void drain( Lane lane ) {
+        while (true) {
+            int active = lane.active.get();
+            if (active >= maxConcurrency || lane.pending.isEmpty()) return;
+
+            if (!lane.active.compareAndSet(active, active + 1)) continue;
+
+            Invocation invocation = lane.pending.poll();
+            if (invocation == null) {
+                // Taken by another thread
+                lane.active.decrementAndGet();
+                continue;
+            }
+
+            Runnable task = invocation.tracked;
+            try {
+                executor.execute(() -> {
+                    try {
+                        task.run();
+                    } finally {
+                        lane.active.decrementAndGet();
+                        finished();
+                        drain(lane);
+                    }
+                });
+            } catch (RejectedExecutionException e) {
+                // Shut down after the running check of the dispatch
+                lane.active.decrementAndGet();
+                monitor.dropped(task);
+                outstanding.decrementAndGet();
+                invocation.ignored(this, MESSAGE_SHUTDOWN);
+            }
+        }
+    }
+
+    private void finished() {
+        if (outstanding.decrementAndGet() == 0 && !running) {
+            executor.shutdown();
+        }
+    }
+
+    @Override
+    public DispatcherMXBean getMonitor() {
+        return monitor;
+    }
+
+    @Override
+    public void shutdown( boolean wait , long millis ) {
+        running = false;
+
+        // The executor is shut down by the last invocation, queued tasks still need it
+        if (outstanding.get() == 0) {
+            executor.shutdown();
+        }
+
+        if (wait) {
+            try {
+                if (!executor.awaitTermination(millis, TimeUnit.MILLISECONDS)) {
+                    executor.shutdownNow();
+                }
+            } catch (InterruptedException e) {
+                executor.shutdownNow();
+            }
+        }
+    }
+
+    /**
+     * Queue and running count of one event type.
+     */
+    private static final class Lane {
+        final Queue<Invocation> pending = new ConcurrentLinkedQueue<>();
+        final AtomicInteger active = new AtomicInteger();
+    }
+
+    private static final class Invocation extends HandlerTask {
+        /** What is given to the executor: the invocation, or its {@link DispatcherMonitor#track(Runnable)} wrapper */
+        Runnable tracked;
+
+        Invocation(EventMessage event, EventHandler<?> handler, EventBusListener listener) {
+            super(event, handler, null, listener);
+        }
+    }
+
+}
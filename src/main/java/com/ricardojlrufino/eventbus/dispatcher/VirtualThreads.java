@@ -0,0 +1,40 @@
+package com.ricardojlrufino.eventbus.dispatcher;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Creates the executor of {@link VirtualThreadEventDispatcher}. <br/>
+ * This is the Java 8 version, with a bounded pool of platform threads.
+ * The multi-release JAR has a version for Java 21+ (src/main/java21) that starts a virtual thread per task.
+ */
+final class VirtualThreads {
+
+    private VirtualThreads() {
+    }
+
+    static boolean isSupported() {
+        return false;
+    }
+
+    /**
+     * @param platformThreads Size of the pool, used only when virtual threads are not supported
+     */
+    static ExecutorService newExecutor( String name , int platformThreads ) {
+        // Numbered like the virtual threads: name-1, name-2...
+        AtomicInteger count = new AtomicInteger();
+        ThreadFactory factory = task -> {
+            Thread thread = new Thread(task, name + "-" + count.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+
+        return new ThreadPoolExecutor(platformThreads, platformThreads, 0L, TimeUnit.MILLISECONDS,
+                                      new LinkedBlockingQueue<Runnable>(), factory);
+    }
+
+}
@@ -0,0 +1,220 @@
+package com.ricardojlrufino.eventbus;
+
+import java.util.ArrayDeque;
+import java.util.List;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Java Flight Recorder events of the bus, enabled by {@link EventBus#enableFlightRecorder()}. <br/>
+ * This is the Java 11+ version of the multi-release JAR. Each event is created and filled only when the recording
+ * has it enabled (category "eventbus4j" in JMC), otherwise the cost is the check of {@link Event#isEnabled()}.
+ */
+final class FlightRecorderSupport {
+
+    private static final String CATEGORY = "eventbus4j";
+
+    /** Handler events of the handlers running on each thread, null when the event type is disabled */
+    private static final ThreadLocal<ArrayDeque<Object>> RUNNING = ThreadLocal.withInitial(ArrayDeque::new);
+    private static final Object DISABLED = new Object();
+
+    private FlightRecorderSupport() {
+    }
+
+    static boolean isSupported() {
+        return true;
+    }
+
+    static EventBusListener newListener() {
+        return new Listener();
+    }
+
+    static void published( EventMessage event , int handlers ) {
+        PublishEvent jfr = new PublishEvent();
+        if (jfr.shouldCommit()) {
+            jfr.eventType = event.getClass();
+            jfr.handlers = handlers;
+            jfr.commit();
+        }
+    }
+
+    private static String identity( Object handler ) {
+        return handler.getClass().getName() + "@" + Integer.toHexString(System.identityHashCode(handler));
+    }
+
+    @Name("eventbus4j.Publish")
+    @Label("Publish")
+    @Category(CATEGORY)
+    @Description("An event notified to the bus")
+    @StackTrace(true)
+    static final class PublishEvent extends Event {
+        @Label("Event Type")
+        Class<?> eventType;
+
+        @Label("Handlers")
+        int handlers;
+    }
+
+    @Name("eventbus4j.Enqueue")
+    @Label("Enqueue")
+    @Category(CATEGORY)
+    @Description("A handler run given to the dispatcher")
+    @StackTrace(false)
+    static final class EnqueueEvent extends Event {
+        @Label("Event Type")
+        Class<?> eventType;
+
+        @Label("Handler")
+        String handler;
+
+        @Label("Dispatcher")
+        Class<?> dispatcher;
+    }
+
+    @Name("eventbus4j.Handler")
+    @Label("Handler")
+    @Category(CATEGORY)
+    @Description("Run of a handler, from start to end")
+    @StackTrace(false)
+    static final class HandlerEvent extends Event {
+        @Label("Event Type")
+        Class<?> eventType;
+
+        @Label("Handler")
+        String handler;
+
+        @Label("Batch Size")
+        int batchSize;
+    }
+
+    @Name("eventbus4j.Ignored")
+    @Label("Ignored")
+    @Category(CATEGORY)
+    @Description("An event dropped by the dispatcher, or without handlers")
+    @StackTrace(false)
+    static final class IgnoredEvent extends Event {
+        @Label("Event Type")
+        Class<?> eventType;
+
+        @Label("Dispatcher")
+        Class<?> dispatcher;
+
+        @Label("Reason")
+        String reason;
+    }
+
+    @Name("eventbus4j.Error")
+    @Label("Handler Error")
+    @Category(CATEGORY)
+    @Description("An exception thrown by a handler")
+    @StackTrace(false)
+    static final class ErrorEvent extends Event {
+        @Label("Event Type")
+        Class<?> eventType;
+
+        @Label("Handler")
+        String handler;
+
+        @Label("Exception")
+        Class<?> exception;
+
+        @Label("Message")
+        String message;
+    }
+
+    private static final class Listener extends EventBusListener {
+
+        @Override
+        public <E extends EventMessage> void beforeDispatch( E event , EventHandler<E> handler , EventDispatcher eventDispatcher ) {
+            EnqueueEvent jfr = new EnqueueEvent();
+            if (jfr.shouldCommit()) {
+                jfr.eventType = event.getClass();
+                jfr.handler = identity(handler);
+                jfr.dispatcher = eventDispatcher.getClass();
+                jfr.commit();
+            }
+        }
+
+        @Override
+        public <E extends EventMessage> void beforeRun( E event , EventHandler<E> handler ) {
+            begin();
+        }
+
+        @Override
+        public <E extends EventMessage> void afterRun( E event , EventHandler<E> handler ) {
+            end(event.getClass(), handler, 1);
+        }
+
+        @Override
+        public <E extends EventMessage> void beforeRunBatch( List<E> events , BatchEventHandler<E> handler ) {
+            begin();
+        }
+
+        @Override
+        public <E extends EventMessage> void afterRunBatch( List<E> events , BatchEventHandler<E> handler ) {
+            end(events.isEmpty() ? null : events.get(0).getClass(), handler, events.size());
+        }
+
+        private void begin() {
+            HandlerEvent jfr = new HandlerEvent();
+            if (jfr.isEnabled()) {
+                jfr.begin();
+                RUNNING.get().push(jfr);
+            } else {
+                RUNNING.get().push(DISABLED);
+            }
+        }
+
+        private void end( Class<?> eventType , Object handler , int batchSize ) {
+            Object running = RUNNING.get().poll();
+            if (!(running instanceof HandlerEvent)) return;
+
+            HandlerEvent jfr = (HandlerEvent) running;
+            jfr.end();
+            if (jfr.shouldCommit()) {
+                jfr.eventType = eventType;
+                jfr.handler = identity(handler);
+                jfr.batchSize = batchSize;
+                jfr.commit();
+            }
+        }
+
+        @Override
+        public <E extends EventMessage> void eventIgnored( E event , EventDispatcher eventDispatcher , String reason ) {
+            IgnoredEvent jfr = new IgnoredEvent();
+            if (jfr.shouldCommit()) {
+                jfr.eventType = event.getClass();
+                jfr.dispatcher = (eventDispatcher != null ? eventDispatcher.getClass() : null);
+                jfr.reason = reason;
+                jfr.commit();
+            }
+        }
+
+        @Override
+        public <E extends EventMessage> void onError( Exception e , E event , EventHandler<E> handler ) {
+            error(e, event.getClass(), handler);
+        }
+
+        @Override
+        public <E extends EventMessage> void onBatchError( Exception e , List<E> events , BatchEventHandler<E> handler ) {
+            error(e, events.isEmpty() ? null : events.get(0).getClass(), handler);
+        }
+
+        private void error( Exception e , Class<?> eventType , Object handler ) {
+            ErrorEvent jfr = new ErrorEvent();
+            if (jfr.shouldCommit()) {
+                jfr.eventType = eventType;
+                jfr.handler = identity(handler);
+                jfr.exception = e.getClass();
+                jfr.message = e.getMessage();
+                jfr.commit();
+            }
+        }
+    }
+
+}
@@ -0,0 +1,23 @@
+package com.ricardojlrufino.eventbus.dispatcher;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Creates the executor of {@link VirtualThreadEventDispatcher}. <br/>
+ * This is the Java 21+ version of the multi-release JAR: every task runs on a new virtual thread.
+ */
+final class VirtualThreads {
+
+    private VirtualThreads() {
+    }
+
+    static boolean isSupported() {
+        return true;
+    }
+
+    static ExecutorService newExecutor( String name , int platformThreads ) {
+        return Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name(name + "-", 1).factory());
+    }
+
+}
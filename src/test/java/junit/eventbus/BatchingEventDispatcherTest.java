@@ -0,0 +1,233 @@
+package junit.eventbus;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.Test;
+
+import com.ricardojlrufino.eventbus.BatchEventHandler;
+import com.ricardojlrufino.eventbus.EventBus;
+import com.ricardojlrufino.eventbus.EventBusListener;
+import com.ricardojlrufino.eventbus.EventHandler;
+import com.ricardojlrufino.eventbus.EventMessage;
+import com.ricardojlrufino.eventbus.dispatcher.BatchingEventDispatcher;
+
+import junit.eventbus.PriorityTest.EventSave;
+import junit.eventbus.UIEvents.EventBoardChange;
+
+public class BatchingEventDispatcherTest {
+
+  /**
+   * Full batches run at the size limit, the last one after the delay. Other handlers receive every event.
+   */
+  @Test
+  public void testSizeAndDelay() throws InterruptedException {
+
+    EventBus.configDispatcher(UIEvents.BOARD_CHANGE, new BatchingEventDispatcher(UIEvents.BOARD_CHANGE, 10, 200));
+
+    List<Integer> sizes = Collections.synchronizedList(new ArrayList<>());
+    List<String> received = Collections.synchronizedList(new ArrayList<>());
+    AtomicInteger single = new AtomicInteger();
+    AtomicInteger batchesListened = new AtomicInteger();
+
+    EventBus.addBusListener(new EventBusListener() {
+      @Override
+      public <E extends EventMessage> void afterRunBatch( List<E> events , BatchEventHandler<E> handler ) {
+        batchesListened.incrementAndGet();
+      }
+    });
+
+    EventBus.register(UIEvents.BOARD_CHANGE, (BatchEventHandler<EventBoardChange>) events -> {
+      sizes.add(events.size());
+      for (EventBoardChange event : events) {
+        received.add(event.getBoard());
+      }
+    });
+    EventBus.register(UIEvents.BOARD_CHANGE, event -> single.incrementAndGet());
+
+    for (int i = 0; i < 25; i++) {
+      EventBus.notify(new EventBoardChange("" + i));
+    }
+
+    Thread.sleep(600);
+
+    assertEquals(Arrays.asList(10, 10, 5), sizes);
+    assertEquals(25, received.size());
+    assertEquals("24", received.get(24));
+    assertEquals(25, single.get());
+    assertEquals(3, batchesListened.get());
+
+    EventBus.shutdown(true, 1000 * 30);
+  }
+
+  /**
+   * Errors are reported per batch, and the pending batch runs on shutdown.
+   */
+  @Test
+  public void testErrorsAndShutdown() {
+
+    EventBus.configDispatcher(UIEvents.BOARD_CHANGE, new BatchingEventDispatcher(UIEvents.BOARD_CHANGE, 4, 1000 * 60));
+
+    List<Integer> errors = Collections.synchronizedList(new ArrayList<>());
+
+    EventBus.addBusListener(new EventBusListener() {
+      @Override
+      public <E extends EventMessage> void onBatchError( Exception e , List<E> events , BatchEventHandler<E> handler ) {
+        errors.add(events.size());
+      }
+    });
+
+    EventBus.register(UIEvents.BOARD_CHANGE, (BatchEventHandler<EventBoardChange>) events -> {
+      throw new IllegalStateException("teste");
+    });
+
+    for (int i = 0; i < 6; i++) {
+      EventBus.notify(new EventBoardChange("" + i));
+    }
+
+    EventBus.shutdown(true, 1000 * 30);
+
+    assertEquals(Arrays.asList(4, 2), errors);
+  }
+
+  /**
+   * A new bus listener runs the pending batch with the previous listener, and starts a new batch.
+   */
+  @Test
+  public void testListenerChange() {
+
+    EventBus.configDispatcher(UIEvents.BOARD_CHANGE, new BatchingEventDispatcher(UIEvents.BOARD_CHANGE, 10, 1000 * 60));
+
+    List<Integer> sizes = Collections.synchronizedList(new ArrayList<>());
+    List<Integer> listened = Collections.synchronizedList(new ArrayList<>());
+
+    EventBus.register(UIEvents.BOARD_CHANGE, (BatchEventHandler<EventBoardChange>) events -> sizes.add(events.size()));
+
+    for (int i = 0; i < 3; i++) {
+      EventBus.notify(new EventBoardChange("" + i));
+    }
+
+    EventBus.addBusListener(new EventBusListener() {
+      @Override
+      public <E extends EventMessage> void afterRunBatch( List<E> events , BatchEventHandler<E> handler ) {
+        listened.add(events.size());
+      }
+    });
+
+    for (int i = 3; i < 5; i++) {
+      EventBus.notify(new EventBoardChange("" + i));
+    }
+
+    EventBus.shutdown(true, 1000 * 30);
+
+    assertEquals(Arrays.asList(3, 2), sizes);
+    assertEquals(Arrays.asList(2), listened);
+  }
+
+  /**
+   * A batch is removed once submitted: no entry is kept for a handler without pending events.
+   */
+  @Test
+  public void testBatchesRemoved() throws InterruptedException {
+
+    BatchingEventDispatcher dispatcher = new BatchingEventDispatcher(UIEvents.BOARD_CHANGE, 10, 100);
+    EventBus.configDispatcher(UIEvents.BOARD_CHANGE, dispatcher);
+
+    AtomicInteger received = new AtomicInteger();
+
+    EventBus.register(UIEvents.BOARD_CHANGE, (BatchEventHandler<EventBoardChange>) events -> received.addAndGet(events.size()));
+
+    for (int i = 0; i < 15; i++) {
+      EventBus.notify(new EventBoardChange("" + i));
+    }
+
+    assertEquals(1, dispatcher.size());
+
+    Thread.sleep(400);
+
+    assertEquals(15, received.get());
+    assertEquals(0, dispatcher.size());
+
+    EventBus.shutdown(true, 1000 * 30);
+  }
+
+  /**
+   * The other handlers of an event run in one task, and a listener exception does not stop them.
+   */
+  @Test
+  public void testOneTaskPerEvent() {
+
+    BatchingEventDispatcher dispatcher = new BatchingEventDispatcher(UIEvents.BOARD_CHANGE, 10, 1000 * 60);
+    dispatcher.getMonitor().setEnabled(true);
+    EventBus.configDispatcher(UIEvents.BOARD_CHANGE, dispatcher);
+
+    AtomicInteger single = new AtomicInteger();
+    AtomicInteger errors = new AtomicInteger();
+
+    EventBus.addBusListener(new EventBusListener() {
+      @Override
+      public <E extends EventMessage> void beforeRun( E event , EventHandler<E> handler ) {
+        if (event.toString().contains("board 0]")) throw new IllegalStateException("listener");
+      }
+
+      @Override
+      public <E extends EventMessage> void onError( Exception e , E event , EventHandler<E> handler ) {
+        errors.incrementAndGet();
+      }
+    });
+
+    EventBus.register(UIEvents.BOARD_CHANGE, (BatchEventHandler<EventBoardChange>) events -> {});
+    EventBus.register(UIEvents.BOARD_CHANGE, event -> single.incrementAndGet());
+    EventBus.register(UIEvents.BOARD_CHANGE, event -> single.incrementAndGet());
+
+    for (int i = 0; i < 5; i++) {
+      EventBus.notify(new EventBoardChange("board " + i));
+    }
+
+    EventBus.shutdown(true, 1000 * 30);
+
+    // 5 tasks of the single handlers and the batch
+    assertEquals(6, dispatcher.getMonitor().getCompleted());
+    assertEquals(8, single.get());
+    assertTrue(errors.get() > 0);
+  }
+
+  /**
+   * Cancelled events are left out of the batch, and reported to the listener.
+   */
+  @Test
+  public void testCancelled() {
+
+    EventBus.configDispatcher(EventSave.class, new BatchingEventDispatcher(EventSave.class, 10, 1000 * 60));
+
+    List<Integer> sizes = Collections.synchronizedList(new ArrayList<>());
+    AtomicInteger cancelled = new AtomicInteger();
+
+    EventBus.addBusListener(new EventBusListener() {
+      @Override
+      public <E extends EventMessage> void eventCancelled( E event , EventHandler<E> handler ) {
+        cancelled.incrementAndGet();
+      }
+    });
+
+    EventBus.register(EventSave.class, (BatchEventHandler<EventSave>) events -> sizes.add(events.size()));
+
+    for (int i = 0; i < 5; i++) {
+      EventSave event = new EventSave();
+      if (i % 2 == 0) event.cancel();
+      EventBus.notify(event);
+    }
+
+    EventBus.shutdown(true, 1000 * 30);
+
+    assertEquals(Arrays.asList(2), sizes);
+    assertEquals(3, cancelled.get());
+  }
+
+}
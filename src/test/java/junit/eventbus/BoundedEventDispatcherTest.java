@@ -0,0 +1,220 @@
+package junit.eventbus;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.junit.Test;
+
+import com.ricardojlrufino.eventbus.EventBus;
+import com.ricardojlrufino.eventbus.EventBusListener;
+import com.ricardojlrufino.eventbus.EventDispatcher;
+import com.ricardojlrufino.eventbus.EventHandler;
+import com.ricardojlrufino.eventbus.EventMessage;
+import com.ricardojlrufino.eventbus.dispatcher.BoundedEventDispatcher;
+import com.ricardojlrufino.eventbus.dispatcher.BoundedEventDispatcher.OverflowPolicy;
+
+import junit.eventbus.UIEvents.EventBoardChange;
+
+public class BoundedEventDispatcherTest {
+
+  private List<String> processed = new ArrayList<>();
+  private List<String> ignored = new ArrayList<>();
+
+  private CountDownLatch started = new CountDownLatch(1);
+  private CountDownLatch release = new CountDownLatch(1);
+
+  /**
+   * Register a handler that is slow for the first event and fill the queue (capacity 2) while it is running.
+   */
+  private void fillQueue( BoundedEventDispatcher dispatcher ) throws InterruptedException {
+    EventBus.configDispatcher(UIEvents.BOARD_CHANGE, dispatcher);
+
+    EventBus.addBusListener(new EventBusListener() {
+      @Override
+      public <E extends EventMessage> void eventIgnored( E event , EventDispatcher eventDispatcher , String reason ) {
+        synchronized (ignored) {
+          ignored.add(((EventBoardChange) event).getBoard() + ":" + reason);
+        }
+      }
+    });
+
+    EventBus.register(UIEvents.BOARD_CHANGE, event -> {
+      if ("1".equals(event.getBoard())) {
+        started.countDown();
+        try {
+          release.await();
+        } catch (InterruptedException e) {
+          e.printStackTrace();
+        }
+      }
+      synchronized (processed) {
+        processed.add(event.getBoard() + ":" + Thread.currentThread().getName());
+      }
+    });
+
+    EventBus.notify(new EventBoardChange("1"));
+    assertTrue(started.await(5, TimeUnit.SECONDS));
+
+    EventBus.notify(new EventBoardChange("2"));
+    EventBus.notify(new EventBoardChange("3"));
+  }
+
+  private void finish() {
+    release.countDown();
+    EventBus.shutdown(true, 1000 * 30);
+  }
+
+  @Test
+  public void testDropNewest() throws InterruptedException {
+    fillQueue(new BoundedEventDispatcher(UIEvents.BOARD_CHANGE, 2, OverflowPolicy.DROP_NEWEST));
+
+    EventBus.notify(new EventBoardChange("4"));
+
+    finish();
+
+    assertEquals(Arrays.asList("4:" + BoundedEventDispatcher.MESSAGE_QUEUE_FULL), ignored);
+    assertEquals(3, processed.size());
+  }
+
+  @Test
+  public void testDropOldest() throws InterruptedException {
+    fillQueue(new BoundedEventDispatcher(UIEvents.BOARD_CHANGE, 2, OverflowPolicy.DROP_OLDEST));
+
+    EventBus.notify(new EventBoardChange("4"));
+
+    finish();
+
+    assertEquals(Arrays.asList("2:" + BoundedEventDispatcher.MESSAGE_DROPPED_OLDEST), ignored);
+    assertEquals(Arrays.asList("1", "3", "4"), boards());
+  }
+
+  @Test
+  public void testBlockTimeout() throws InterruptedException {
+    fillQueue(new BoundedEventDispatcher(UIEvents.BOARD_CHANGE, 2, OverflowPolicy.BLOCK_TIMEOUT, 50));
+
+    EventBus.notify(new EventBoardChange("4"));
+
+    finish();
+
+    assertEquals(Arrays.asList("4:" + BoundedEventDispatcher.MESSAGE_QUEUE_TIMEOUT), ignored);
+    assertEquals(Arrays.asList("1", "2", "3"), boards());
+  }
+
+  @Test
+  public void testBlock() throws InterruptedException {
+    fillQueue(new BoundedEventDispatcher(UIEvents.BOARD_CHANGE, 2, OverflowPolicy.BLOCK));
+
+    Thread releaser = new Thread(() -> {
+      try {
+        Thread.sleep(100);
+      } catch (InterruptedException e) {
+      }
+      release.countDown();
+    });
+    releaser.start();
+
+    // Waits for the slow handler
+    EventBus.notify(new EventBoardChange("4"));
+
+    finish();
+
+    assertEquals(0, ignored.size());
+    assertEquals(Arrays.asList("1", "2", "3", "4"), boards());
+  }
+
+  /**
+   * A producer blocked on a full queue is released by the shutdown, its event is rejected.
+   */
+  @Test
+  public void testBlockedProducerOnShutdown() throws InterruptedException {
+    BoundedEventDispatcher dispatcher = new BoundedEventDispatcher(UIEvents.BOARD_CHANGE, 2, OverflowPolicy.BLOCK);
+    fillQueue(dispatcher);
+
+    AtomicReference<Exception> rejected = new AtomicReference<>();
+    Thread producer = new Thread(() -> {
+      try {
+        EventBus.notify(new EventBoardChange("4"));
+      } catch (RejectedExecutionException e) {
+        rejected.set(e);
+      }
+    });
+    producer.start();
+    Thread.sleep(50);
+
+    // The worker is still in the slow handler
+    dispatcher.shutdown(false, 0);
+
+    producer.join(5000);
+    assertFalse(producer.isAlive());
+    assertNotNull(rejected.get());
+
+    finish();
+
+    assertEquals(Arrays.asList("1", "2", "3"), boards());
+  }
+
+  @Test
+  public void testCallerRuns() throws InterruptedException {
+    fillQueue(new BoundedEventDispatcher(UIEvents.BOARD_CHANGE, 2, OverflowPolicy.CALLER_RUNS));
+
+    EventBus.notify(new EventBoardChange("4"));
+
+    finish();
+
+    assertEquals(0, ignored.size());
+    assertEquals(4, processed.size());
+    assertTrue(processed.contains("4:" + Thread.currentThread().getName()));
+  }
+
+  /**
+   * A listener callback that throws is reported to onError, and the worker keeps delivering.
+   */
+  @Test
+  public void testListenerFailure() {
+    EventBus.configDispatcher(UIEvents.BOARD_CHANGE, new BoundedEventDispatcher(UIEvents.BOARD_CHANGE, 16, OverflowPolicy.BLOCK));
+
+    List<Exception> errors = new ArrayList<>();
+
+    EventBus.register(UIEvents.BOARD_CHANGE, event -> processed.add(event.getBoard()));
+
+    EventBus.addBusListener(new EventBusListener() {
+      @Override
+      public <E extends EventMessage> void afterRun( E event , EventHandler<E> handler ) {
+        if ("1".equals(((EventBoardChange) event).getBoard())) throw new IllegalStateException("listener");
+      }
+
+      @Override
+      public <E extends EventMessage> void onError( Exception e , E event , EventHandler<E> handler ) {
+        errors.add(e);
+      }
+    });
+
+    for (int i = 0; i < 3; i++) {
+      EventBus.notify(new EventBoardChange(String.valueOf(i)));
+    }
+
+    EventBus.shutdown(true, 1000 * 30);
+
+    assertEquals(Arrays.asList("0", "1", "2"), processed);
+    assertEquals(1, errors.size());
+  }
+
+  private List<String> boards() {
+    List<String> boards = new ArrayList<>();
+    for (String item : processed) {
+      boards.add(item.substring(0, item.indexOf(':')));
+    }
+    return boards;
+  }
+
+}
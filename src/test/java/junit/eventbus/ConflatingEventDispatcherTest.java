@@ -0,0 +1,113 @@
+package junit.eventbus;
+
+import static org.junit.Assert.assertEquals;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.Test;
+
+import com.ricardojlrufino.eventbus.EventBus;
+import com.ricardojlrufino.eventbus.EventBusListener;
+import com.ricardojlrufino.eventbus.EventDispatcher;
+import com.ricardojlrufino.eventbus.EventMessage;
+import com.ricardojlrufino.eventbus.dispatcher.ConflatingEventDispatcher;
+
+import junit.eventbus.UIEvents.EventBoardChange;
+
+public class ConflatingEventDispatcherTest {
+
+  /**
+   * While the handler is busy, only the latest event of each board is kept.
+   */
+  @Test
+  public void testLatestPerKey() throws InterruptedException {
+
+    ConflatingEventDispatcher dispatcher = new ConflatingEventDispatcher(UIEvents.BOARD_CHANGE);
+    EventBus.configDispatcher(UIEvents.BOARD_CHANGE, dispatcher, event -> event.getBoard().substring(0, 1));
+
+    List<String> received = Collections.synchronizedList(new ArrayList<>());
+    AtomicInteger conflated = new AtomicInteger();
+    CountDownLatch started = new CountDownLatch(1);
+    CountDownLatch release = new CountDownLatch(1);
+
+    EventBus.addBusListener(new EventBusListener() {
+      @Override
+      public <E extends EventMessage> void eventIgnored( E event , EventDispatcher eventDispatcher , String reason ) {
+        assertEquals(ConflatingEventDispatcher.MESSAGE_CONFLATED, reason);
+        conflated.incrementAndGet();
+      }
+    });
+
+    EventBus.register(UIEvents.BOARD_CHANGE, event -> {
+      received.add(event.getBoard());
+      started.countDown();
+      try {
+        release.await();
+      } catch (InterruptedException e) {
+        e.printStackTrace();
+      }
+    });
+
+    EventBus.notify(new EventBoardChange("a1"));
+    started.await();
+
+    for (int i = 2; i <= 100; i++) {
+      EventBus.notify(new EventBoardChange("a" + i));
+    }
+    for (int i = 1; i <= 100; i++) {
+      EventBus.notify(new EventBoardChange("b" + i));
+    }
+
+    release.countDown();
+    EventBus.shutdown(true, 1000 * 30);
+
+    assertEquals(Arrays.asList("a1", "a100", "b100"), received);
+    assertEquals(197, conflated.get());
+    // Drained: the slots of the keys were removed
+    assertEquals(0, dispatcher.size());
+  }
+
+  /**
+   * The slot of a key is removed once its events ran, so the keys do not accumulate.
+   */
+  @Test
+  public void testSlotsRemovedAfterDrain() throws InterruptedException {
+
+    ConflatingEventDispatcher dispatcher = new ConflatingEventDispatcher(UIEvents.BOARD_CHANGE);
+    EventBus.configDispatcher(UIEvents.BOARD_CHANGE, dispatcher, EventBoardChange::getBoard);
+
+    CountDownLatch release = new CountDownLatch(1);
+    AtomicInteger received = new AtomicInteger();
+
+    EventBus.register(UIEvents.BOARD_CHANGE, event -> {
+      try {
+        release.await();
+      } catch (InterruptedException e) {
+        e.printStackTrace();
+      }
+      received.incrementAndGet();
+    });
+
+    for (int i = 0; i < 1000; i++) {
+      EventBus.notify(new EventBoardChange("board " + i));
+    }
+    assertEquals(1000, dispatcher.size());
+
+    release.countDown();
+    long start = System.currentTimeMillis();
+    while (dispatcher.size() > 0 && System.currentTimeMillis() - start < 5000) {
+      Thread.sleep(10);
+    }
+
+    assertEquals(1000, received.get());
+    assertEquals(0, dispatcher.size());
+
+    EventBus.shutdown(true, 1000 * 30);
+  }
+
+}
@@ -0,0 +1,182 @@
+package junit.eventbus;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.fail;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.Test;
+
+import com.ricardojlrufino.eventbus.EventBus;
+import com.ricardojlrufino.eventbus.EventBusListener;
+import com.ricardojlrufino.eventbus.EventDispatcher;
+import com.ricardojlrufino.eventbus.EventHandler;
+import com.ricardojlrufino.eventbus.EventMessage;
+import com.ricardojlrufino.eventbus.dispatcher.DirectEventDispatcher;
+
+import junit.eventbus.UIEvents.EventBoardChange;
+import junit.eventbus.UIEvents.EventUserChange;
+
+public class DirectEventDispatcherTest {
+
+  /**
+   * Handlers run on the caller thread, events notified by a handler run after it returns, in order.
+   */
+  @Test
+  public void testReentrantOrder() {
+
+    EventBus.get().setDefaultDispatcher(new DirectEventDispatcher());
+
+    List<String> calls = new ArrayList<>();
+    String caller = Thread.currentThread().getName();
+
+    EventBus.register(UIEvents.BOARD_CHANGE, event -> {
+      calls.add("board:" + event.getBoard());
+      if (event.getBoard().equals("1")) {
+        EventBus.notify(new EventUserChange("A"));
+        EventBus.notify(new EventBoardChange("2"));
+        calls.add("board 1 done");
+      }
+    });
+
+    EventBus.register(UIEvents.USER_CHANGE, event -> {
+      calls.add("user:" + event.getUser() + ":" + Thread.currentThread().getName().equals(caller));
+      EventBus.notify(new EventBoardChange("3"));
+    });
+
+    EventBus.notify(new EventBoardChange("1"));
+
+    // All done when notify returns
+    assertEquals(Arrays.asList("board:1", "board 1 done", "user:A:true", "board:2", "board:3"), calls);
+
+    EventBus.shutdown(true, 1000);
+  }
+
+  /**
+   * When a listener throws, the exception reaches the caller and the queued events are reported as discarded.
+   */
+  @Test
+  public void testListenerFailureDiscardsQueued() {
+
+    EventBus.get().setDefaultDispatcher(new DirectEventDispatcher());
+
+    List<String> calls = new ArrayList<>();
+    List<String> ignored = new ArrayList<>();
+
+    EventBus.register(UIEvents.BOARD_CHANGE, event -> {
+      calls.add("board:" + event.getBoard());
+      if (event.getBoard().equals("1")) {
+        EventBus.notify(new EventUserChange("A"));
+        EventBus.notify(new EventBoardChange("2"));
+      }
+    });
+
+    EventBus.register(UIEvents.USER_CHANGE, event -> calls.add("user:" + event.getUser()));
+
+    EventBus.addBusListener(new EventBusListener() {
+      @Override
+      public <E extends EventMessage> void afterRun( E event , EventHandler<E> handler ) {
+        if (event.toString().equals("Event[Bord:1]")) throw new IllegalStateException("listener");
+      }
+
+      @Override
+      public <E extends EventMessage> void eventIgnored( E event , EventDispatcher eventDispatcher , String reason ) {
+        ignored.add(event + ":" + reason);
+      }
+    });
+
+    try {
+      EventBus.notify(new EventBoardChange("1"));
+      fail("The listener exception reaches the caller");
+    } catch (IllegalStateException e) {
+      assertEquals("listener", e.getMessage());
+    }
+
+    assertEquals(Arrays.asList("User[name:A]:" + DirectEventDispatcher.MESSAGE_DISCARDED,
+                               "Event[Bord:2]:" + DirectEventDispatcher.MESSAGE_DISCARDED), ignored);
+
+    // Nothing left in the queue of the thread
+    EventBus.notify(new EventBoardChange("3"));
+    assertEquals(Arrays.asList("board:1", "board:3"), calls);
+
+    EventBus.shutdown(true, 1000);
+  }
+
+  /**
+   * A discarded event is reported with the dispatcher of its own type, not the one that was running the queue.
+   */
+  @Test
+  public void testDiscardedByOwnDispatcher() {
+
+    DirectEventDispatcher boards = new DirectEventDispatcher();
+    DirectEventDispatcher users = new DirectEventDispatcher();
+    EventBus.configDispatcher(UIEvents.BOARD_CHANGE, boards);
+    EventBus.configDispatcher(UIEvents.USER_CHANGE, users);
+
+    List<EventDispatcher> ignored = new ArrayList<>();
+
+    EventBus.register(UIEvents.BOARD_CHANGE, event -> EventBus.notify(new EventUserChange("A")));
+    EventBus.register(UIEvents.USER_CHANGE, event -> {});
+
+    EventBus.addBusListener(new EventBusListener() {
+      @Override
+      public <E extends EventMessage> void afterRun( E event , EventHandler<E> handler ) {
+        if (event instanceof EventBoardChange) throw new IllegalStateException("listener");
+      }
+
+      @Override
+      public <E extends EventMessage> void eventIgnored( E event , EventDispatcher eventDispatcher , String reason ) {
+        ignored.add(eventDispatcher);
+      }
+    });
+
+    try {
+      EventBus.notify(new EventBoardChange("1"));
+      fail("The listener exception reaches the caller");
+    } catch (IllegalStateException e) {
+      assertEquals("listener", e.getMessage());
+    }
+
+    assertEquals(1, ignored.size());
+    assertSame(users, ignored.get(0));
+
+    EventBus.shutdown(true, 1000);
+  }
+
+  /**
+   * A long chain of events, each notified by the handler of the previous one, does not grow the stack.
+   */
+  @Test
+  public void testDeepChain() {
+
+    EventBus.configDispatcher(ChainEvent.class, new DirectEventDispatcher());
+
+    AtomicInteger count = new AtomicInteger();
+
+    EventBus.register(ChainEvent.class, event -> {
+      count.incrementAndGet();
+      if (event.remaining > 0) {
+        EventBus.notify(new ChainEvent(event.remaining - 1));
+      }
+    });
+
+    EventBus.notify(new ChainEvent(100_000));
+
+    assertEquals(100_001, count.get());
+
+    EventBus.shutdown(true, 1000);
+  }
+
+  public static class ChainEvent implements EventMessage {
+    final int remaining;
+
+    public ChainEvent( int remaining ) {
+      this.remaining = remaining;
+    }
+  }
+
+}
@@ -0,0 +1,107 @@
+package junit.eventbus;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.lang.management.ManagementFactory;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+
+import org.junit.Test;
+
+import com.ricardojlrufino.eventbus.DispatcherMXBean;
+import com.ricardojlrufino.eventbus.EventBus;
+import com.ricardojlrufino.eventbus.dispatcher.BoundedEventDispatcher;
+import com.ricardojlrufino.eventbus.dispatcher.SingleThreadEventDispatcher;
+
+import junit.eventbus.UIEvents.EventBoardChange;
+import junit.eventbus.UIEvents.EventUserChange;
+
+public class DispatcherMBeanTest {
+
+  /**
+   * A blocked dispatcher shows its queue and the age of the oldest event over JMX.
+   */
+  @Test
+  public void testQueueDepthAndAge() throws Exception {
+
+    MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+    ObjectName name = new ObjectName("com.ricardojlrufino.eventbus:type=Dispatcher,name=" + EventBoardChange.class.getName());
+
+    CountDownLatch release = new CountDownLatch(1);
+    CountDownLatch done = new CountDownLatch(5);
+
+    EventBus.registerMBeans();
+    EventBus.configDispatcher(UIEvents.BOARD_CHANGE, new SingleThreadEventDispatcher(UIEvents.BOARD_CHANGE));
+
+    EventBus.register(UIEvents.BOARD_CHANGE, event -> {
+      try {
+        release.await();
+      } catch (InterruptedException e) {
+      }
+      done.countDown();
+    });
+
+    for (int i = 0; i < 5; i++) {
+      EventBus.notify(new EventBoardChange("board " + i));
+    }
+
+    Thread.sleep(200);
+
+    // The first one is running
+    assertEquals(4, server.getAttribute(name, "QueueDepth"));
+    assertTrue((Long) server.getAttribute(name, "OldestEventAgeMillis") >= 150);
+    assertEquals(SingleThreadEventDispatcher.class.getName(), server.getAttribute(name, "Dispatcher"));
+
+    release.countDown();
+    assertTrue(done.await(10, TimeUnit.SECONDS));
+    Thread.sleep(100);
+
+    assertEquals(0, server.getAttribute(name, "QueueDepth"));
+    assertEquals(0L, server.getAttribute(name, "OldestEventAgeMillis"));
+    assertEquals(5L, server.getAttribute(name, "Completed"));
+    assertTrue((Double) server.getAttribute(name, "BusyRatio") > 0);
+    assertTrue(server.isRegistered(new ObjectName("com.ricardojlrufino.eventbus:type=Dispatcher,name=default")));
+
+    EventBus.shutdown(true, 1000 * 30);
+
+    assertFalse(server.isRegistered(name));
+  }
+
+  @Test
+  public void testOwnQueue() throws InterruptedException {
+
+    CountDownLatch release = new CountDownLatch(1);
+
+    BoundedEventDispatcher dispatcher = new BoundedEventDispatcher(UIEvents.USER_CHANGE, 10, BoundedEventDispatcher.OverflowPolicy.BLOCK);
+    DispatcherMXBean monitor = dispatcher.getMonitor();
+    monitor.setEnabled(true);
+
+    EventBus.configDispatcher(UIEvents.USER_CHANGE, dispatcher);
+    EventBus.register(UIEvents.USER_CHANGE, event -> {
+      try {
+        release.await();
+      } catch (InterruptedException e) {
+      }
+    });
+
+    for (int i = 0; i < 3; i++) {
+      EventBus.notify(new EventUserChange("user " + i));
+    }
+
+    Thread.sleep(200);
+
+    assertEquals(2, monitor.getQueueDepth());
+    assertTrue(monitor.getOldestEventAgeMillis() >= 150);
+
+    release.countDown();
+    EventBus.shutdown(true, 1000 * 30);
+
+    assertEquals(3, monitor.getCompleted());
+  }
+
+}
@@ -4,22 +4,29 @@ import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertTrue;
 import static org.junit.Assert.fail;
 
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.ConcurrentModificationException;
+import java.util.List;
 import java.util.Set;
 import java.util.concurrent.ExecutionException;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
 import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import org.junit.Test;
 
 import com.ricardojlrufino.eventbus.EventBus;
 import com.ricardojlrufino.eventbus.EventBusListener;
+import com.ricardojlrufino.eventbus.EventDispatcher;
 import com.ricardojlrufino.eventbus.EventHandler;
 import com.ricardojlrufino.eventbus.EventMessage;
 
 import junit.eventbus.UIEvents.EventBoardChange;
+import junit.eventbus.UIEvents.EventUserChange;
 
 public class EventBusTest {
     
@@ -114,7 +121,7 @@ public class EventBusTest {
         // Simulate register
         executor.execute(() -> {
             int counter = 0;
-            while(true) {
+            while(!Thread.currentThread().isInterrupted()) {
                 final int c = ++counter;
                 try {
 //                    System.out.println("Resgister handler: " + c);
@@ -132,7 +139,9 @@ public class EventBusTest {
                 
                 try {
                     Thread.sleep(10);
-                } catch (InterruptedException e2) {}
+                } catch (InterruptedException e2) {
+                    break;
+                }
             }
         });
         
@@ -160,6 +169,168 @@ public class EventBusTest {
         
         future.get(); 
         
+        // Stop the register simulation, so it does not leak into the other tests
+        executor.shutdownNow();
+        executor.awaitTermination(1, TimeUnit.SECONDS);
+        
+        EventBus.shutdown(true, 1000);
+    }
+    
+    /**
+     * Changes made after the first notify (when the dispatch plan is already compiled) must take effect.
+     */
+    @Test
+    public void testRegistryChangesAfterNotify() {
+        
+        AtomicInteger dispatched = new AtomicInteger();
+        AtomicInteger received = new AtomicInteger();
+        
+        EventHandler<EventUserChange> handler = EventBus.register(UIEvents.USER_CHANGE, event -> {
+            received.incrementAndGet();
+        });
+        
+        EventBus.notify(new EventUserChange("user 1"));
+        
+        EventBus.configDispatcher(UIEvents.USER_CHANGE, new EventDispatcher() {
+            @Override
+            public <E extends EventMessage> void dispatch( E event , EventHandler<E> handler , EventBusListener busListener ) {
+                dispatched.incrementAndGet();
+                handler.onEvent(event);
+            }
+            
+            @Override
+            public void shutdown( boolean wait , long millis ) {
+            }
+        });
+        
+        EventBus.notify(new EventUserChange("user 2"));
+        
+        EventBus.unregisterHandler(handler);
+        
+        EventBus.notify(new EventUserChange("user 3"));
+        
+        EventBus.shutdown(true, 1000);
+        
+        assertEquals(1, dispatched.get());
+        assertEquals(2, received.get());
+    }
+    
+    /**
+     * Handlers of supertypes (and interfaces) also receive the event, including the ones registered after the first notify.
+     */
+    @Test
+    public void testHierarchyHandlers() {
+        
+        List<String> received = new ArrayList<>();
+        
+        EventBus.configDispatcher(BoardEvent.class, new EventDispatcher() {
+            @Override
+            public <E extends EventMessage> void dispatch( E event , EventHandler<E> handler , EventBusListener busListener ) {
+                handler.onEvent(event);
+            }
+            
+            @Override
+            public void shutdown( boolean wait , long millis ) {
+            }
+        });
+        
+        EventBus.register(EventBoardResize.class, event -> received.add("resize"));
+        
+        EventBus.notify(new EventBoardResize());
+        
+        EventBus.register(BoardEvent.class, event -> received.add("board"));
+        EventHandler<EventMessage> any = EventBus.register(EventMessage.class, event -> received.add("any"));
+        
+        EventBus.notify(new EventBoardResize());
+        
+        EventBus.unregisterHandler(any);
+        
+        EventBus.notify(new EventBoardResize());
+        
+        EventBus.shutdown(true, 1000);
+        
+        assertEquals(Arrays.asList("resize", "resize", "board", "any", "resize", "board"), received);
+    }
+    
+    /**
+     * A handler registered for several types, and the handlers of a holder, are removed from all of them.
+     */
+    @SuppressWarnings({ "rawtypes", "unchecked" })
+    @Test
+    public void testUnregisterFromSeveralTypes() {
+        
+        List<String> received = new ArrayList<>();
+        
+        EventBus.configDispatcher(EventMessage.class, new EventDispatcher() {
+            @Override
+            public <E extends EventMessage> void dispatch( E event , EventHandler<E> handler , EventBusListener busListener ) {
+                handler.onEvent(event);
+            }
+            
+            @Override
+            public void shutdown( boolean wait , long millis ) {
+            }
+        });
+        
+        EventHandler<EventMessage> shared = event -> received.add("shared");
+        EventBus.register(BoardEvent.class, (EventHandler) shared);
+        EventBus.register(EventMessage.class, shared);
+        
+        Object holder = new Object();
+        EventBus.register(holder, EventBoardResize.class, event -> received.add("holder 1"));
+        EventBus.register(holder, BoardEvent.class, event -> received.add("holder 2"));
+        
+        EventBus.notify(new EventBoardResize());
+        
+        EventBus.unregisterHandler(shared);
+        EventBus.unregisterHandlers(holder);
+        
+        EventBus.notify(new EventBoardResize());
+        
+        assertTrue(EventBus.getHandlers(BoardEvent.class).isEmpty());
+        assertTrue(EventBus.getHandlers(EventMessage.class).isEmpty());
+        
         EventBus.shutdown(true, 1000);
+        
+        assertEquals(Arrays.asList("holder 1", "shared", "holder 2"), received);
+    }
+    
+    /**
+     * A listener added after the first notify must be called for the next events.
+     */
+    @Test
+    public void testListenerAddedAfterNotify() {
+        
+        AtomicInteger dispatched = new AtomicInteger();
+        AtomicInteger ran = new AtomicInteger();
+        
+        EventBus.register(UIEvents.USER_CHANGE, event -> {});
+        
+        EventBus.notify(new EventUserChange("user 1"));
+        
+        EventBus.addBusListener(new EventBusListener() {
+            @Override
+            public <E extends EventMessage> void beforeDispatch( E event , EventHandler<E> handler , EventDispatcher eventDispatcher ) {
+                dispatched.incrementAndGet();
+            }
+            
+            @Override
+            public <E extends EventMessage> void afterRun( E event , EventHandler<E> handler ) {
+                ran.incrementAndGet();
+            }
+        });
+        
+        EventBus.notify(new EventUserChange("user 2"));
+        
+        EventBus.shutdown(true, 1000);
+        
+        assertEquals(1, dispatched.get());
+        assertEquals(1, ran.get());
+    }
+    
+    public interface BoardEvent extends EventMessage {
+    }
+    
+    public static class EventBoardResize implements BoardEvent {
     }
 }
@@ -0,0 +1,42 @@
+package junit.eventbus;
+
+import static org.junit.Assert.assertEquals;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.Test;
+
+import com.ricardojlrufino.eventbus.EventBus;
+import com.ricardojlrufino.eventbus.dispatcher.DirectEventDispatcher;
+
+import junit.eventbus.UIEvents.EventBoardChange;
+import junit.eventbus.UIEvents.EventUserChange;
+
+public class FlightRecorderTest {
+
+  @Test
+  public void testDispatchWithFlightRecorder() {
+
+    EventBus.get().setDefaultDispatcher(new DirectEventDispatcher());
+
+    AtomicInteger received = new AtomicInteger();
+    EventBus.register(UIEvents.BOARD_CHANGE, event -> received.incrementAndGet());
+    EventBus.register(UIEvents.BOARD_CHANGE, event -> {
+      throw new IllegalStateException("fail");
+    });
+
+    // False from the classes directory (tests) or on Java 8: the events come from the multi-release JAR
+    boolean supported = EventBus.enableFlightRecorder();
+    assertEquals(supported, EventBus.enableFlightRecorder());
+
+    for (int i = 0; i < 10; i++) {
+      EventBus.notify(new EventBoardChange("board " + i));
+    }
+    EventBus.notify(new EventUserChange("no handler"));
+
+    assertEquals(10, received.get());
+
+    EventBus.shutdown(true, 1000*30);
+  }
+
+}
@@ -0,0 +1,130 @@
+package junit.eventbus;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.Test;
+
+import com.ricardojlrufino.eventbus.EventBus;
+import com.ricardojlrufino.eventbus.EventBusListener;
+import com.ricardojlrufino.eventbus.EventHandler;
+import com.ricardojlrufino.eventbus.EventMessage;
+import com.ricardojlrufino.eventbus.dispatcher.ForkJoinEventDispatcher;
+
+import junit.eventbus.UIEvents.EventBoardChange;
+
+public class ForkJoinEventDispatcherTest {
+
+  /**
+   * In join mode, all handlers have finished when notify returns.
+   */
+  @Test
+  public void testJoin() {
+
+    EventBus.configDispatcher(UIEvents.BOARD_CHANGE, new ForkJoinEventDispatcher(4, true));
+
+    AtomicInteger atomicInteger = new AtomicInteger();
+    Set<String> threadsNames = new HashSet<>();
+
+    for (int i = 0; i < 8; i++) {
+      EventBus.register(UIEvents.BOARD_CHANGE, event -> {
+        try {
+          Thread.sleep(20);
+        } catch (InterruptedException e) {
+          e.printStackTrace();
+        }
+        atomicInteger.incrementAndGet();
+        synchronized (threadsNames) {
+          threadsNames.add(Thread.currentThread().getName());
+        }
+      });
+    }
+
+    EventBus.notify(new EventBoardChange("board 1"));
+    assertEquals(8, atomicInteger.get());
+
+    EventBus.notify(new EventBoardChange("board 2"));
+    assertEquals(16, atomicInteger.get());
+
+    EventBus.shutdown(true, 1000 * 30);
+
+    assertTrue(threadsNames.size() > 1);
+  }
+
+  @Test
+  public void testHandlerErrors() {
+
+    EventBus.configDispatcher(UIEvents.BOARD_CHANGE, new ForkJoinEventDispatcher(2, false));
+
+    AtomicInteger atomicInteger = new AtomicInteger();
+    AtomicInteger errors = new AtomicInteger();
+
+    EventBus.addBusListener(new EventBusListener() {
+      @Override
+      public <E extends EventMessage> void onError( Exception e , E event , EventHandler<E> handler ) {
+        errors.incrementAndGet();
+      }
+
+      @Override
+      public <E extends EventMessage> void afterRun( E event , EventHandler<E> handler ) {
+        atomicInteger.incrementAndGet();
+      }
+    });
+
+    EventBus.register(UIEvents.BOARD_CHANGE, event -> {
+      throw new IllegalStateException("teste");
+    });
+    EventBus.register(UIEvents.BOARD_CHANGE, event -> {
+    });
+
+    for (int i = 0; i < 100; i++) {
+      EventBus.notify(new EventBoardChange("board " + i));
+    }
+
+    EventBus.shutdown(true, 1000 * 30);
+
+    assertEquals(200, atomicInteger.get());
+    assertEquals(100, errors.get());
+  }
+
+  /**
+   * A listener callback that throws is reported to onError, in join mode it does not reach the caller of notify.
+   */
+  @Test
+  public void testListenerFailure() {
+
+    EventBus.configDispatcher(UIEvents.BOARD_CHANGE, new ForkJoinEventDispatcher(2, true));
+
+    AtomicInteger received = new AtomicInteger();
+    AtomicInteger errors = new AtomicInteger();
+
+    EventBus.addBusListener(new EventBusListener() {
+      @Override
+      public <E extends EventMessage> void beforeRun( E event , EventHandler<E> handler ) {
+        if (event.toString().contains("board 1]")) throw new IllegalStateException("listener");
+      }
+
+      @Override
+      public <E extends EventMessage> void onError( Exception e , E event , EventHandler<E> handler ) {
+        errors.incrementAndGet();
+      }
+    });
+
+    EventBus.register(UIEvents.BOARD_CHANGE, event -> received.incrementAndGet());
+    EventBus.register(UIEvents.BOARD_CHANGE, event -> received.incrementAndGet());
+
+    for (int i = 0; i < 3; i++) {
+      EventBus.notify(new EventBoardChange("board " + i));
+    }
+
+    EventBus.shutdown(true, 1000 * 30);
+
+    assertEquals(4, received.get());
+    assertEquals(2, errors.get());
+  }
+
+}
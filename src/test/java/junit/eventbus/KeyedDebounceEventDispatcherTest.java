@@ -0,0 +1,87 @@
+package junit.eventbus;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.Test;
+
+import com.ricardojlrufino.eventbus.EventBus;
+import com.ricardojlrufino.eventbus.EventBusListener;
+import com.ricardojlrufino.eventbus.EventDispatcher;
+import com.ricardojlrufino.eventbus.EventMessage;
+import com.ricardojlrufino.eventbus.dispatcher.KeyedDebounceEventDispatcher;
+
+import junit.eventbus.UIEvents.EventBoardChange;
+
+public class KeyedDebounceEventDispatcherTest {
+
+  /**
+   * Only the latest event of each key is delivered, the others are reported as debounced.
+   */
+  @Test
+  public void testTrailingEventPerKey() throws InterruptedException {
+
+    KeyedDebounceEventDispatcher dispatcher = new KeyedDebounceEventDispatcher(UIEvents.BOARD_CHANGE, 200);
+    EventBus.configDispatcher(UIEvents.BOARD_CHANGE, dispatcher, event -> event.getBoard().substring(0, 1));
+
+    List<String> received = Collections.synchronizedList(new ArrayList<>());
+    AtomicInteger ignored = new AtomicInteger();
+
+    EventBus.addBusListener(new EventBusListener() {
+      @Override
+      public <E extends EventMessage> void eventIgnored( E event , EventDispatcher eventDispatcher , String reason ) {
+        assertEquals(KeyedDebounceEventDispatcher.MESSAGE_DEBOUNCED, reason);
+        ignored.incrementAndGet();
+      }
+    });
+
+    EventBus.register(UIEvents.BOARD_CHANGE, event -> received.add(event.getBoard()));
+
+    for (int i = 1; i <= 5; i++) {
+      EventBus.notify(new EventBoardChange("a" + i));
+      EventBus.notify(new EventBoardChange("b" + i));
+    }
+    EventBus.notify(new EventBoardChange("c1"));
+
+    assertEquals(3, dispatcher.size());
+
+    Thread.sleep(1000);
+
+    assertEquals(0, dispatcher.size());
+    assertEquals(3, received.size());
+    assertTrue(received.containsAll(Arrays.asList("a5", "b5", "c1")));
+    assertEquals(8, ignored.get());
+
+    EventBus.shutdown(true, 1000 * 30);
+  }
+
+  /**
+   * Events spaced by more than the delay are all delivered, and pending events are delivered on shutdown.
+   */
+  @Test
+  public void testSpacedEventsAndShutdown() throws InterruptedException {
+
+    EventBus.configDispatcher(UIEvents.BOARD_CHANGE, new KeyedDebounceEventDispatcher(UIEvents.BOARD_CHANGE, 50));
+
+    List<String> received = Collections.synchronizedList(new ArrayList<>());
+
+    EventBus.register(UIEvents.BOARD_CHANGE, event -> received.add(event.getBoard()));
+
+    EventBus.notify(new EventBoardChange("1"));
+    Thread.sleep(300);
+    EventBus.notify(new EventBoardChange("2"));
+    Thread.sleep(300);
+    EventBus.notify(new EventBoardChange("3"));
+
+    EventBus.shutdown(true, 1000 * 30);
+
+    assertEquals(Arrays.asList("1", "2", "3"), received);
+  }
+
+}
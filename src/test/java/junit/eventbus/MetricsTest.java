@@ -0,0 +1,169 @@
+package junit.eventbus;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+
+import org.junit.Test;
+
+import com.ricardojlrufino.eventbus.EventBus;
+import com.ricardojlrufino.eventbus.EventBusListener;
+import com.ricardojlrufino.eventbus.EventDispatcher;
+import com.ricardojlrufino.eventbus.EventBusMetrics;
+import com.ricardojlrufino.eventbus.EventBusMetrics.Stats;
+import com.ricardojlrufino.eventbus.EventHandler;
+import com.ricardojlrufino.eventbus.EventMessage;
+import com.ricardojlrufino.eventbus.LatencyHistogram;
+import com.ricardojlrufino.eventbus.dispatcher.DirectEventDispatcher;
+import com.ricardojlrufino.eventbus.dispatcher.SingleThreadEventDispatcher;
+
+import junit.eventbus.UIEvents.EventBoardChange;
+import junit.eventbus.UIEvents.EventUserChange;
+
+public class MetricsTest {
+
+  @Test
+  public void testCounters() {
+
+    EventBus.get().setDefaultDispatcher(new DirectEventDispatcher());
+
+    EventHandler<EventBoardChange> ok = EventBus.register(UIEvents.BOARD_CHANGE, event -> {});
+    EventHandler<EventBoardChange> failing = EventBus.register(UIEvents.BOARD_CHANGE, event -> {
+      throw new IllegalStateException("fail");
+    });
+
+    // Registered before: the compiled plans start recording
+    EventBus.notify(new EventBoardChange("not counted"));
+    EventBusMetrics metrics = EventBus.enableMetrics();
+
+    for (int i = 0; i < 10; i++) {
+      EventBus.notify(new EventBoardChange("board " + i));
+    }
+    EventBus.notify(new EventUserChange("no handler"));
+
+    EventBusMetrics.Snapshot snapshot = metrics.snapshot();
+
+    Stats board = snapshot.getTypes().get(EventBoardChange.class);
+    assertEquals(10, board.getPublished());
+    assertEquals(20, board.getDispatched());
+    assertEquals(20, board.getCompleted());
+    assertEquals(10, board.getFailed());
+    assertEquals(20, board.getRunTime().getCount());
+    assertEquals(20, board.getQueueWait().getCount());
+
+    assertEquals(10, snapshot.getHandlers().get(ok).getCompleted());
+    assertEquals(0, snapshot.getHandlers().get(ok).getFailed());
+    assertEquals(10, snapshot.getHandlers().get(failing).getFailed());
+
+    Stats user = snapshot.getTypes().get(EventUserChange.class);
+    assertEquals(1, user.getPublished());
+    assertEquals(1, user.getIgnored());
+
+    EventBus.unregisterHandler(failing);
+    assertTrue(!metrics.snapshot().getHandlers().containsKey(failing));
+
+    EventBus.disableMetrics();
+    assertNull(EventBus.getMetrics());
+
+    EventBus.shutdown(true, 1000 * 30);
+  }
+
+  /**
+   * The dispatcher receives the same metered listener for every event, and the queue wait of async handlers is recorded.
+   */
+  @Test
+  public void testListenerPerPlan() {
+
+    Set<EventBusListener> listeners = Collections.newSetFromMap(new IdentityHashMap<>());
+    SingleThreadEventDispatcher async = new SingleThreadEventDispatcher(UIEvents.BOARD_CHANGE);
+
+    EventBus.configDispatcher(UIEvents.BOARD_CHANGE, new EventDispatcher() {
+      @Override
+      public <E extends EventMessage> void dispatch( E event , EventHandler<E> handler , EventBusListener busListener ) {
+        listeners.add(busListener);
+        async.dispatch(event, handler, busListener);
+      }
+
+      @Override
+      public void shutdown( boolean wait , long millis ) {
+        async.shutdown(wait, millis);
+      }
+    });
+
+    EventBus.register(UIEvents.BOARD_CHANGE, event -> {});
+    EventBusMetrics metrics = EventBus.enableMetrics();
+
+    for (int i = 0; i < 10; i++) {
+      EventBus.notify(new EventBoardChange("board " + i));
+    }
+
+    EventBus.shutdown(true, 1000 * 30);
+
+    Stats board = metrics.snapshot().getTypes().get(EventBoardChange.class);
+    assertEquals(1, listeners.size());
+    assertEquals(10, board.getCompleted());
+    assertEquals(10, board.getQueueWait().getCount());
+  }
+
+  /**
+   * A handler unregistered while it runs is not added back to the snapshot when its run ends.
+   */
+  @Test
+  public void testUnregisterWhileRunning() throws InterruptedException {
+
+    EventBus.configDispatcher(UIEvents.BOARD_CHANGE, new SingleThreadEventDispatcher(UIEvents.BOARD_CHANGE));
+    EventBusMetrics metrics = EventBus.enableMetrics();
+
+    CountDownLatch running = new CountDownLatch(1);
+    CountDownLatch unregistered = new CountDownLatch(1);
+
+    EventHandler<EventBoardChange> handler = EventBus.register(UIEvents.BOARD_CHANGE, event -> {
+      running.countDown();
+      try {
+        unregistered.await();
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+      }
+    });
+
+    EventBus.notify(new EventBoardChange("board"));
+
+    running.await();
+    EventBus.unregisterHandler(handler);
+    unregistered.countDown();
+
+    EventBus.shutdown(true, 1000 * 30);
+
+    assertEquals(1, metrics.snapshot().getTypes().get(EventBoardChange.class).getCompleted());
+    assertTrue(!metrics.snapshot().getHandlers().containsKey(handler));
+  }
+
+  @Test
+  public void testHistogram() {
+
+    LatencyHistogram histogram = new LatencyHistogram();
+    for (int i = 1; i <= 1000; i++) {
+      histogram.record(i * 1000L);
+    }
+
+    LatencyHistogram.Snapshot snapshot = histogram.snapshot();
+
+    assertEquals(1000, snapshot.getCount());
+    assertEquals(500500, snapshot.getMean(), 1);
+
+    // Buckets are at most 25% wide
+    assertInRange(500000, snapshot.getPercentile(50));
+    assertInRange(990000, snapshot.getPercentile(99));
+    assertInRange(1000000, snapshot.getMax());
+  }
+
+  private static void assertInRange( long expected , long actual ) {
+    assertTrue(expected + " ~ " + actual, actual >= expected && actual <= expected * 1.25);
+  }
+
+}
@@ -0,0 +1,105 @@
+package junit.eventbus;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.junit.Test;
+
+import com.ricardojlrufino.eventbus.EventBus;
+import com.ricardojlrufino.eventbus.EventMessage;
+import com.ricardojlrufino.eventbus.dispatcher.PartitionedEventDispatcher;
+import com.ricardojlrufino.eventbus.dispatcher.RingBufferEventDispatcher;
+import com.ricardojlrufino.eventbus.dispatcher.RingBufferEventDispatcher.ProducerType;
+
+public class PartitionedEventDispatcherTest {
+
+  /**
+   * Events of each account run in order, events of different accounts run on different lanes.
+   */
+  @Test
+  public void testOrderPerKey() {
+
+    EventBus.configDispatcher(AccountEvent.class, new PartitionedEventDispatcher(AccountEvent.class, 4), event -> event.account);
+
+    Map<String, List<Integer>> sequences = new HashMap<>();
+    Set<String> threadsNames = new HashSet<>();
+
+    EventBus.register(AccountEvent.class, event -> {
+      synchronized (sequences) {
+        sequences.computeIfAbsent(event.account, k -> new ArrayList<>()).add(event.sequence);
+        threadsNames.add(Thread.currentThread().getName());
+      }
+    });
+
+    for (int i = 0; i < 1000; i++) {
+      for (int account = 0; account < 16; account++) {
+        EventBus.notify(new AccountEvent("account " + account, i));
+      }
+    }
+
+    EventBus.shutdown(true, 1000 * 30);
+
+    assertEquals(16, sequences.size());
+    for (List<Integer> sequence : sequences.values()) {
+      assertEquals(1000, sequence.size());
+      for (int i = 0; i < 1000; i++) {
+        assertEquals(i, (int) sequence.get(i));
+      }
+    }
+    assertTrue(threadsNames.size() > 1);
+  }
+
+  /**
+   * The key extractor also applies to subtypes, and the lanes can use other dispatchers.
+   */
+  @Test
+  public void testSubtypeWithRingBufferLanes() {
+
+    EventBus.configDispatcher(AccountEvent.class,
+                              new PartitionedEventDispatcher(2, () -> new RingBufferEventDispatcher(AccountEvent.class, 64, ProducerType.SINGLE)),
+                              event -> event.account);
+
+    List<Integer> sequence = new ArrayList<>();
+
+    EventBus.register(AccountEvent.class, event -> {
+      synchronized (sequence) {
+        sequence.add(event.sequence);
+      }
+    });
+
+    for (int i = 0; i < 500; i++) {
+      EventBus.notify(new AccountDeposit("account", i));
+    }
+
+    EventBus.shutdown(true, 1000 * 30);
+
+    assertEquals(500, sequence.size());
+    for (int i = 0; i < 500; i++) {
+      assertEquals(i, (int) sequence.get(i));
+    }
+  }
+
+  public static class AccountEvent implements EventMessage {
+    final String account;
+    final int sequence;
+
+    public AccountEvent( String account , int sequence ) {
+      this.account = account;
+      this.sequence = sequence;
+    }
+  }
+
+  public static class AccountDeposit extends AccountEvent {
+    public AccountDeposit( String account , int sequence ) {
+      super(account, sequence);
+    }
+  }
+
+}
@@ -0,0 +1,146 @@
+package junit.eventbus;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+
+import org.junit.Test;
+
+import com.ricardojlrufino.eventbus.EventBus;
+import com.ricardojlrufino.eventbus.EventBusListener;
+import com.ricardojlrufino.eventbus.EventHandler;
+import com.ricardojlrufino.eventbus.EventMessage;
+import com.ricardojlrufino.eventbus.PooledEventMessage;
+import com.ricardojlrufino.eventbus.dispatcher.ConflatingEventDispatcher;
+import com.ricardojlrufino.eventbus.dispatcher.DirectEventDispatcher;
+
+public class PooledEventTest {
+
+  public static class PooledBoardEvent extends PooledEventMessage {
+
+    String board;
+    int resets;
+
+    @Override
+    protected void reset() {
+      board = null;
+      resets++;
+    }
+  }
+
+  /**
+   * The event returns to the pool only after the last handler, and is reused by the next obtain.
+   */
+  @Test
+  public void testReuseAfterLastHandler() {
+
+    EventBus.configDispatcher(PooledBoardEvent.class, new DirectEventDispatcher());
+    EventBus.configPool(PooledBoardEvent.class, PooledBoardEvent::new, 4);
+
+    Set<PooledBoardEvent> instances = Collections.newSetFromMap(new IdentityHashMap<>());
+    List<String> first = new ArrayList<>();
+    List<String> second = new ArrayList<>();
+
+    EventBus.register(PooledBoardEvent.class, event -> {
+      instances.add(event);
+      first.add(event.board);
+    });
+    EventBus.register(PooledBoardEvent.class, event -> {
+      second.add(event.board);
+      throw new IllegalStateException("teste");
+    });
+
+    for (int i = 0; i < 10; i++) {
+      PooledBoardEvent event = EventBus.obtain(PooledBoardEvent.class);
+      event.board = "board " + i;
+      EventBus.notify(event);
+    }
+
+    assertEquals(1, instances.size());
+    assertEquals(10, instances.iterator().next().resets);
+    assertEquals(10, first.size());
+    assertEquals("board 9", second.get(9));
+
+    EventBus.shutdown(true, 1000 * 30);
+  }
+
+  /**
+   * An event without handlers returns immediately, an event ignored by the dispatcher too.
+   */
+  @Test
+  public void testNoHandlerAndIgnored() {
+
+    EventBus.configPool(PooledBoardEvent.class, PooledBoardEvent::new, 4);
+
+    PooledBoardEvent event = EventBus.obtain(PooledBoardEvent.class);
+    EventBus.notify(event);
+    assertSame(event, EventBus.obtain(PooledBoardEvent.class));
+
+    EventBus.configDispatcher(PooledBoardEvent.class, new DirectEventDispatcher() {
+      @Override
+      public <E extends EventMessage> void dispatchAll( E event , EventHandler<E>[] handlers , EventBusListener busListener ) {
+        busListener.eventIgnored(event, this, "DROP");
+      }
+    });
+    EventBus.register(PooledBoardEvent.class, e -> {
+    });
+
+    EventBus.notify(event);
+    assertSame(event, EventBus.obtain(PooledBoardEvent.class));
+
+    EventBus.shutdown(true, 1000 * 30);
+  }
+
+  /**
+   * An event conflated by the dispatcher, for all its handlers at once, returns to the pool and is reused.
+   */
+  @Test
+  public void testDroppedForAllHandlers() throws InterruptedException {
+
+    EventBus.configDispatcher(PooledBoardEvent.class, new ConflatingEventDispatcher());
+    EventBus.configPool(PooledBoardEvent.class, PooledBoardEvent::new, 4);
+
+    CountDownLatch started = new CountDownLatch(1);
+    CountDownLatch release = new CountDownLatch(1);
+
+    EventBus.register(PooledBoardEvent.class, event -> {
+      started.countDown();
+      try {
+        release.await();
+      } catch (InterruptedException e) {
+        e.printStackTrace();
+      }
+    });
+    EventBus.register(PooledBoardEvent.class, event -> {
+    });
+
+    EventBus.notify(EventBus.obtain(PooledBoardEvent.class));
+    started.await();
+
+    PooledBoardEvent conflated = EventBus.obtain(PooledBoardEvent.class);
+    EventBus.notify(conflated);
+    EventBus.notify(EventBus.obtain(PooledBoardEvent.class));
+
+    assertEquals(1, conflated.resets);
+    assertSame(conflated, EventBus.obtain(PooledBoardEvent.class));
+
+    release.countDown();
+    EventBus.shutdown(true, 1000 * 30);
+  }
+
+  @Test(expected = IllegalStateException.class)
+  public void testObtainWithoutPool() {
+    try {
+      EventBus.obtain(PooledBoardEvent.class);
+    } finally {
+      EventBus.shutdown(true, 1000 * 30);
+    }
+  }
+
+}
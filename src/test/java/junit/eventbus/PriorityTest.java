@@ -0,0 +1,120 @@
+package junit.eventbus;
+
+import static org.junit.Assert.assertEquals;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.Test;
+
+import com.ricardojlrufino.eventbus.CancellableEvent;
+import com.ricardojlrufino.eventbus.EventBus;
+import com.ricardojlrufino.eventbus.EventBusListener;
+import com.ricardojlrufino.eventbus.EventHandler;
+import com.ricardojlrufino.eventbus.EventMessage;
+import com.ricardojlrufino.eventbus.Subscribe;
+import com.ricardojlrufino.eventbus.dispatcher.DirectEventDispatcher;
+
+public class PriorityTest {
+
+  public static class EventSave implements CancellableEvent {
+
+    private volatile boolean cancelled;
+
+    @Override
+    public boolean isCancelled() {
+      return cancelled;
+    }
+
+    @Override
+    public void cancel() {
+      cancelled = true;
+    }
+  }
+
+  @Test
+  public void testPriorityOrder() {
+
+    List<String> received = new ArrayList<>();
+
+    EventBus.get().setDefaultDispatcher(new DirectEventDispatcher());
+
+    EventBus.register(EventSave.class, event -> received.add("default 1"));
+    EventBus.register(EventSave.class, event -> received.add("low"), -10);
+    EventBus.register(EventSave.class, event -> received.add("cache"), 100);
+    EventBus.register(EventSave.class, event -> received.add("default 2"));
+    EventBus.register(EventMessage.class, event -> received.add("any"), 10);
+
+    EventBus.notify(new EventSave());
+
+    EventBus.shutdown(true, 1000 * 30);
+
+    assertEquals(Arrays.asList("cache", "any", "default 1", "default 2", "low"), received);
+  }
+
+  /**
+   * A cancelled event skips the handlers with lower priority, the listener is told for each one.
+   */
+  @Test
+  public void testCancel() {
+
+    List<String> received = new ArrayList<>();
+    AtomicInteger cancelled = new AtomicInteger();
+
+    EventBus.get().setDefaultDispatcher(new DirectEventDispatcher());
+
+    EventBus.addBusListener(new EventBusListener() {
+      @Override
+      public <E extends EventMessage> void eventCancelled( E event , EventHandler<E> handler ) {
+        cancelled.incrementAndGet();
+      }
+    });
+
+    EventBus.register(EventSave.class, event -> received.add("save"));
+    EventBus.register(EventSave.class, event -> received.add("audit"), -1);
+    EventBus.register(EventSave.class, event -> {
+      received.add("validate");
+      event.cancel();
+    }, 10);
+
+    EventBus.notify(new EventSave());
+
+    EventBus.shutdown(true, 1000 * 30);
+
+    assertEquals(Arrays.asList("validate"), received);
+    assertEquals(2, cancelled.get());
+  }
+
+  public static class SaveView {
+
+    final List<String> received = new ArrayList<>();
+
+    @Subscribe
+    public void onSave( EventSave event ) {
+      received.add("view");
+    }
+
+    @Subscribe(priority = 5)
+    public void invalidate( EventSave event ) {
+      received.add("invalidate");
+    }
+  }
+
+  @Test
+  public void testSubscriberPriority() {
+
+    EventBus.get().setDefaultDispatcher(new DirectEventDispatcher());
+
+    SaveView view = new SaveView();
+    EventBus.registerSubscriber(view);
+
+    EventBus.notify(new EventSave());
+
+    EventBus.shutdown(true, 1000 * 30);
+
+    assertEquals(Arrays.asList("invalidate", "view"), view.received);
+  }
+
+}
@@ -0,0 +1,171 @@
+package junit.eventbus;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.Test;
+
+import com.ricardojlrufino.eventbus.EventBus;
+import com.ricardojlrufino.eventbus.EventBusListener;
+import com.ricardojlrufino.eventbus.EventHandler;
+import com.ricardojlrufino.eventbus.EventMessage;
+import com.ricardojlrufino.eventbus.dispatcher.RingBufferEventDispatcher;
+import com.ricardojlrufino.eventbus.dispatcher.RingBufferEventDispatcher.ProducerType;
+
+import junit.eventbus.UIEvents.EventBoardChange;
+import junit.eventbus.UIEvents.EventUserChange;
+
+public class RingBufferEventDispatcherTest {
+
+  /**
+   * A single producer publishing more events than the buffer size: all are delivered, in order.
+   */
+  @Test
+  public void testSingleProducerOrder() {
+
+    EventBus.configDispatcher(UIEvents.BOARD_CHANGE, new RingBufferEventDispatcher(UIEvents.BOARD_CHANGE, 16, ProducerType.SINGLE));
+
+    List<String> boards = new ArrayList<>();
+
+    EventBus.register(UIEvents.BOARD_CHANGE, event -> {
+      boards.add(event.getBoard());
+    });
+
+    for (int i = 0; i < 1000; i++) {
+      EventBus.notify(new EventBoardChange("board " + i));
+    }
+
+    EventBus.shutdown(true, 1000 * 30);
+
+    assertEquals(1000, boards.size());
+    for (int i = 0; i < 1000; i++) {
+      assertEquals("board " + i, boards.get(i));
+    }
+  }
+
+  @Test
+  public void testMultipleProducers() throws InterruptedException {
+
+    EventBus.configDispatcher(UIEvents.USER_CHANGE, new RingBufferEventDispatcher(UIEvents.USER_CHANGE, 64, ProducerType.MULTI));
+
+    AtomicInteger received = new AtomicInteger();
+    Thread[] workers = new Thread[1];
+
+    EventBus.register(UIEvents.USER_CHANGE, event -> {
+      received.incrementAndGet();
+      workers[0] = Thread.currentThread();
+    });
+
+    // Simulate some event calls....
+    ExecutorService executor = Executors.newFixedThreadPool(4);
+    for (int p = 0; p < 4; p++) {
+      executor.submit(() -> {
+        for (int i = 0; i < 5000; i++) {
+          EventBus.notify(new EventUserChange("user " + i));
+        }
+      });
+    }
+
+    // Wait simulation finish
+    executor.shutdown();
+    assertTrue(executor.awaitTermination(20, TimeUnit.SECONDS));
+
+    EventBus.shutdown(true, 1000 * 30);
+
+    assertEquals(4 * 5000, received.get());
+    assertTrue(workers[0].getName().startsWith("EventUserChange"));
+  }
+
+  /**
+   * A listener callback that throws is reported to onError, and the worker keeps delivering.
+   */
+  @Test
+  public void testListenerFailure() {
+
+    EventBus.configDispatcher(UIEvents.BOARD_CHANGE, new RingBufferEventDispatcher(UIEvents.BOARD_CHANGE, 16, ProducerType.SINGLE));
+
+    List<String> boards = new ArrayList<>();
+    List<Exception> errors = new ArrayList<>();
+
+    EventBus.register(UIEvents.BOARD_CHANGE, event -> boards.add(event.getBoard()));
+
+    EventBus.addBusListener(new EventBusListener() {
+      @Override
+      public <E extends EventMessage> void beforeRun( E event , EventHandler<E> handler ) {
+        if (event.toString().contains("board 1]")) throw new IllegalStateException("listener");
+      }
+
+      @Override
+      public <E extends EventMessage> void onError( Exception e , E event , EventHandler<E> handler ) {
+        errors.add(e);
+      }
+    });
+
+    for (int i = 0; i < 3; i++) {
+      EventBus.notify(new EventBoardChange("board " + i));
+    }
+
+    EventBus.shutdown(true, 1000 * 30);
+
+    assertEquals(2, boards.size());
+    assertEquals(1, errors.size());
+    assertEquals("listener", errors.get(0).getMessage());
+  }
+
+  /**
+   * Shutdown while producers publish: every event is either delivered or rejected to its producer.
+   */
+  @Test
+  public void testShutdownWhilePublishing() throws Exception {
+
+    EventBusListener listener = new EventBusListener() {};
+    ExecutorService executor = Executors.newFixedThreadPool(4);
+
+    for (int round = 0; round < 200; round++) {
+      RingBufferEventDispatcher dispatcher = new RingBufferEventDispatcher(64, ProducerType.MULTI);
+
+      AtomicInteger received = new AtomicInteger();
+      AtomicInteger accepted = new AtomicInteger();
+      EventHandler<EventUserChange> handler = event -> received.incrementAndGet();
+
+      List<Future<?>> producers = new ArrayList<>();
+      for (int p = 0; p < 4; p++) {
+        producers.add(executor.submit(() -> {
+          try {
+            while (true) {
+              dispatcher.dispatch(new EventUserChange("user"), handler, listener);
+              accepted.incrementAndGet();
+            }
+          } catch (RejectedExecutionException e) {
+            // Shut down
+          }
+        }));
+      }
+
+      Thread.sleep(1);
+      dispatcher.shutdown(true, 1000 * 30);
+      for (Future<?> producer : producers) {
+        producer.get(20, TimeUnit.SECONDS);
+      }
+
+      assertEquals(accepted.get(), received.get());
+    }
+
+    executor.shutdown();
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testBufferSizePowerOfTwo() {
+    new RingBufferEventDispatcher(100, ProducerType.SINGLE);
+  }
+
+}
@@ -2,7 +2,10 @@ package junit.eventbus;
 
 import static org.junit.Assert.assertEquals;
 
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.HashSet;
+import java.util.List;
 import java.util.Set;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
@@ -377,4 +380,38 @@ public class SingleThreadEventDispatcherTest {
     assertEquals(15, atomicInteger.get());
   }
   
+  /**
+   * All handlers of an event run in a single task, in order, and an error in one of them does not stop the others.
+   */
+  @Test
+  public void testHandlersRunInOrderWithErrors() {
+    
+    List<String> calls = new ArrayList<>();
+    AtomicInteger errors = new AtomicInteger();
+    
+    EventBus.addBusListener(new EventBusListener() {
+      @Override
+      public <E extends EventMessage> void onError( Exception e , E event , EventHandler<E> handler ) {
+        errors.incrementAndGet();
+      }
+    });
+    
+    EventBus.register(UIEvents.BOARD_CHANGE, event -> {
+      calls.add("first:" + event.getBoard());
+      throw new IllegalStateException("first");
+    });
+    
+    EventBus.register(UIEvents.BOARD_CHANGE, event -> {
+      calls.add("second:" + event.getBoard());
+    });
+    
+    EventBus.notify(new EventBoardChange("1"));
+    EventBus.notify(new EventBoardChange("2"));
+    
+    EventBus.shutdown(true, 1000 * 30);
+    
+    assertEquals(Arrays.asList("first:1", "second:1", "first:2", "second:2"), calls);
+    assertEquals(2, errors.get());
+  }
+  
 }
@@ -0,0 +1,118 @@
+package junit.eventbus;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.Test;
+
+import com.ricardojlrufino.eventbus.EventBus;
+import com.ricardojlrufino.eventbus.EventHandler;
+import com.ricardojlrufino.eventbus.Subscribe;
+import com.ricardojlrufino.eventbus.dispatcher.DirectEventDispatcher;
+
+import junit.eventbus.UIEvents.EventBoardChange;
+import junit.eventbus.UIEvents.EventUserChange;
+
+public class SubscriberTest {
+
+  public static class BoardView {
+
+    final List<String> received = new ArrayList<>();
+
+    @Subscribe
+    public void onBoardChange( EventBoardChange event ) {
+      received.add(event.getBoard());
+    }
+
+    @Subscribe
+    private void onUserChange( EventUserChange event ) {
+      received.add(event.getUser());
+    }
+
+    public void notAnnotated( EventBoardChange event ) {
+      received.add("not annotated");
+    }
+  }
+
+  public static class InvalidSubscriber {
+
+    @Subscribe
+    public void onChange( String value ) {
+    }
+  }
+
+  /**
+   * Public and private methods are registered, and removed with the subscriber as holder.
+   */
+  @Test
+  public void testRegisterSubscriber() {
+
+    EventBus.get().setDefaultDispatcher(new DirectEventDispatcher());
+
+    BoardView view = new BoardView();
+    EventBus.registerSubscriber(view);
+
+    EventBus.notify(new EventBoardChange("board 1"));
+    EventBus.notify(new EventUserChange("user 1"));
+
+    assertEquals(2, view.received.size());
+    assertEquals("board 1", view.received.get(0));
+    assertEquals("user 1", view.received.get(1));
+
+    // Public method is a generated lambda, the private one a method handle
+    for (EventHandler handler : EventBus.getHandlers(UIEvents.BOARD_CHANGE)) {
+      assertTrue(handler.getClass().getName().contains("$$Lambda"));
+    }
+    for (EventHandler handler : EventBus.getHandlers(UIEvents.USER_CHANGE)) {
+      assertFalse(handler.getClass().getName().contains("$$Lambda"));
+    }
+
+    EventBus.unregisterHandlers(view);
+    EventBus.notify(new EventBoardChange("board 2"));
+
+    assertEquals(2, view.received.size());
+    assertTrue(EventBus.getHandlers(UIEvents.BOARD_CHANGE).isEmpty());
+
+    EventBus.shutdown(true, 1000 * 30);
+  }
+
+  public static class DirectView {
+
+    final List<String> received = new ArrayList<>();
+
+    @Subscribe(dispatcher = DirectEventDispatcher.class)
+    public void onUserChange( EventUserChange event ) {
+      received.add(event.getUser());
+    }
+  }
+
+  /**
+   * The dispatcher hint is used for the event type, when none is configured.
+   */
+  @Test
+  public void testDispatcherHint() {
+
+    DirectView view = new DirectView();
+    EventBus.registerSubscriber(view);
+
+    // The direct dispatcher runs the handler before notify returns
+    EventBus.notify(new EventUserChange("user 1"));
+    assertEquals(1, view.received.size());
+
+    EventBus.shutdown(true, 1000 * 30);
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testInvalidMethod() {
+    try {
+      EventBus.registerSubscriber(new InvalidSubscriber());
+    } finally {
+      EventBus.shutdown(true, 1000 * 30);
+    }
+  }
+
+}
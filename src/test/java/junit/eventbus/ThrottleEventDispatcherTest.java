@@ -0,0 +1,193 @@
+package junit.eventbus;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.Test;
+
+import com.ricardojlrufino.eventbus.EventBus;
+import com.ricardojlrufino.eventbus.EventBusListener;
+import com.ricardojlrufino.eventbus.EventDispatcher;
+import com.ricardojlrufino.eventbus.EventMessage;
+import com.ricardojlrufino.eventbus.dispatcher.ThrottleEventDispatcher;
+import com.ricardojlrufino.eventbus.dispatcher.ThrottleEventDispatcher.OverflowPolicy;
+
+import junit.eventbus.UIEvents.EventBoardChange;
+
+public class ThrottleEventDispatcherTest {
+
+  /**
+   * Only the burst is accepted, the others are reported as throttled.
+   */
+  @Test
+  public void testDrop() {
+
+    EventBus.configDispatcher(UIEvents.BOARD_CHANGE, new ThrottleEventDispatcher(UIEvents.BOARD_CHANGE, 1, 5, OverflowPolicy.DROP));
+
+    AtomicInteger executed = new AtomicInteger();
+    Map<String, AtomicInteger> ignored = listenIgnored();
+
+    EventBus.register(UIEvents.BOARD_CHANGE, event -> executed.incrementAndGet());
+
+    for (int i = 0; i < 20; i++) {
+      EventBus.notify(new EventBoardChange("board " + i));
+    }
+
+    EventBus.shutdown(true, 1000 * 30);
+
+    assertEquals(5, executed.get());
+    assertEquals(15, ignored.get(ThrottleEventDispatcher.MESSAGE_THROTTLED).get());
+  }
+
+  /**
+   * All the events run, in order, at the limit rate.
+   */
+  @Test
+  public void testQueue() throws InterruptedException {
+
+    EventBus.configDispatcher(UIEvents.BOARD_CHANGE, new ThrottleEventDispatcher(20, OverflowPolicy.QUEUE));
+
+    List<String> received = Collections.synchronizedList(new ArrayList<>());
+
+    EventBus.register(UIEvents.BOARD_CHANGE, event -> received.add(event.getBoard()));
+
+    long start = System.currentTimeMillis();
+    for (int i = 0; i < 10; i++) {
+      EventBus.notify(new EventBoardChange("" + i));
+    }
+
+    while (received.size() < 10 && System.currentTimeMillis() - start < 5000) {
+      Thread.sleep(10);
+    }
+    long time = System.currentTimeMillis() - start;
+
+    EventBus.shutdown(true, 1000 * 30);
+
+    assertEquals(Arrays.asList("0", "1", "2", "3", "4", "5", "6", "7", "8", "9"), received);
+    assertTrue("took " + time, time >= 400);
+  }
+
+  /**
+   * Only maxQueued events wait for a token, the others are reported as throttled.
+   */
+  @Test
+  public void testQueueLimit() throws InterruptedException {
+
+    EventBus.configDispatcher(UIEvents.BOARD_CHANGE, new ThrottleEventDispatcher(UIEvents.BOARD_CHANGE, 10, 1, OverflowPolicy.QUEUE, false, 3));
+
+    AtomicInteger executed = new AtomicInteger();
+    Map<String, AtomicInteger> ignored = listenIgnored();
+
+    EventBus.register(UIEvents.BOARD_CHANGE, event -> executed.incrementAndGet());
+
+    for (int i = 0; i < 10; i++) {
+      EventBus.notify(new EventBoardChange("board " + i));
+    }
+
+    Thread.sleep(800);
+    EventBus.shutdown(true, 1000 * 30);
+
+    assertEquals(4, executed.get());
+    assertEquals(6, ignored.get(ThrottleEventDispatcher.MESSAGE_THROTTLED).get());
+  }
+
+  /**
+   * Per key, the first event runs and only the latest of the others waits for the next token.
+   */
+  @Test
+  public void testCoalescePerKey() throws InterruptedException {
+
+    EventBus.configDispatcher(UIEvents.BOARD_CHANGE,
+                              new ThrottleEventDispatcher(UIEvents.BOARD_CHANGE, 4, 1, OverflowPolicy.COALESCE, true),
+                              event -> event.getBoard().substring(0, 1));
+
+    List<String> received = Collections.synchronizedList(new ArrayList<>());
+    Map<String, AtomicInteger> ignored = listenIgnored();
+
+    EventBus.register(UIEvents.BOARD_CHANGE, event -> received.add(event.getBoard()));
+
+    for (int i = 1; i <= 5; i++) {
+      EventBus.notify(new EventBoardChange("a" + i));
+      EventBus.notify(new EventBoardChange("b" + i));
+    }
+
+    Thread.sleep(1000);
+    EventBus.shutdown(true, 1000 * 30);
+
+    assertEquals(4, received.size());
+    assertTrue(received.containsAll(Arrays.asList("a1", "b1", "a5", "b5")));
+    assertEquals(6, ignored.get(ThrottleEventDispatcher.MESSAGE_COALESCED).get());
+  }
+
+  /**
+   * Many keys start sweeps of the idle buckets: a key that is still limited keeps its bucket.
+   */
+  @Test
+  public void testSweepKeepsLimitedKeys() {
+
+    EventBus.configDispatcher(UIEvents.BOARD_CHANGE,
+                              new ThrottleEventDispatcher(UIEvents.BOARD_CHANGE, 0.1, 1, OverflowPolicy.DROP, true),
+                              EventBoardChange::getBoard);
+
+    AtomicInteger executed = new AtomicInteger();
+    Map<String, AtomicInteger> ignored = listenIgnored();
+
+    EventBus.register(UIEvents.BOARD_CHANGE, event -> executed.incrementAndGet());
+
+    EventBus.notify(new EventBoardChange("limited"));
+    for (int i = 0; i < 5000; i++) {
+      EventBus.notify(new EventBoardChange("board " + i));
+    }
+    EventBus.notify(new EventBoardChange("limited"));
+
+    EventBus.shutdown(true, 1000 * 30);
+
+    assertEquals(5001, executed.get());
+    assertEquals(1, ignored.get(ThrottleEventDispatcher.MESSAGE_THROTTLED).get());
+  }
+
+  /**
+   * The idle buckets are removed by the sweeps, the events of their keys take new ones.
+   */
+  @Test
+  public void testSweepIdleKeys() {
+
+    EventBus.configDispatcher(UIEvents.BOARD_CHANGE,
+                              new ThrottleEventDispatcher(UIEvents.BOARD_CHANGE, 1e6, 1, OverflowPolicy.QUEUE, true),
+                              EventBoardChange::getBoard);
+
+    AtomicInteger executed = new AtomicInteger();
+
+    EventBus.register(UIEvents.BOARD_CHANGE, event -> executed.incrementAndGet());
+
+    for (int round = 0; round < 2; round++) {
+      for (int i = 0; i < 5000; i++) {
+        EventBus.notify(new EventBoardChange("board " + i));
+      }
+    }
+
+    EventBus.shutdown(true, 1000 * 30);
+
+    assertEquals(10000, executed.get());
+  }
+
+  private static Map<String, AtomicInteger> listenIgnored() {
+    Map<String, AtomicInteger> ignored = new ConcurrentHashMap<>();
+    EventBus.addBusListener(new EventBusListener() {
+      @Override
+      public <E extends EventMessage> void eventIgnored( E event , EventDispatcher eventDispatcher , String reason ) {
+        ignored.computeIfAbsent(reason, k -> new AtomicInteger()).incrementAndGet();
+      }
+    });
+    return ignored;
+  }
+
+}
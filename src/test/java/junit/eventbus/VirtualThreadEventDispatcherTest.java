@@ -0,0 +1,75 @@
+package junit.eventbus;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.Test;
+
+import com.ricardojlrufino.eventbus.EventBus;
+import com.ricardojlrufino.eventbus.dispatcher.VirtualThreadEventDispatcher;
+
+import junit.eventbus.UIEvents.EventBoardChange;
+import junit.eventbus.UIEvents.EventUserChange;
+
+public class VirtualThreadEventDispatcherTest {
+
+  /**
+   * A flood of blocking events never runs more handlers than the limit of the type, and all of them are executed.
+   */
+  @Test
+  public void testConcurrencyLimitPerType() {
+
+    VirtualThreadEventDispatcher dispatcher = new VirtualThreadEventDispatcher(2, 8);
+    EventBus.configDispatcher(UIEvents.BOARD_CHANGE, dispatcher);
+    EventBus.configDispatcher(UIEvents.USER_CHANGE, dispatcher);
+
+    AtomicInteger boardRunning = new AtomicInteger();
+    AtomicInteger boardMax = new AtomicInteger();
+    AtomicInteger userRunning = new AtomicInteger();
+    AtomicInteger userMax = new AtomicInteger();
+    AtomicInteger executed = new AtomicInteger();
+    Set<String> threads = ConcurrentHashMap.newKeySet();
+
+    EventBus.register(UIEvents.BOARD_CHANGE, event -> {
+      threads.add(Thread.currentThread().getName());
+      block(boardRunning, boardMax);
+      executed.incrementAndGet();
+    });
+
+    EventBus.register(UIEvents.USER_CHANGE, event -> {
+      threads.add(Thread.currentThread().getName());
+      block(userRunning, userMax);
+      executed.incrementAndGet();
+    });
+
+    for (int i = 0; i < 10; i++) {
+      EventBus.notify(new EventBoardChange("board " + i));
+      EventBus.notify(new EventUserChange("user " + i));
+    }
+
+    EventBus.shutdown(true, 1000 * 30);
+
+    assertEquals(20, executed.get());
+    assertEquals(2, boardMax.get());
+    assertEquals(2, userMax.get());
+
+    // Each thread has its own number
+    assertTrue(threads.size() > 1);
+    assertTrue(threads.iterator().next().startsWith("VirtualThreadEventDispatcher-"));
+  }
+
+  private static void block( AtomicInteger running , AtomicInteger max ) {
+    max.accumulateAndGet(running.incrementAndGet(), Math::max);
+    try {
+      Thread.sleep(50);
+    } catch (InterruptedException e) {
+      e.printStackTrace();
+    }
+    running.decrementAndGet();
+  }
+
+}
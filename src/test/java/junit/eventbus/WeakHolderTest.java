@@ -0,0 +1,73 @@
+package junit.eventbus;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.Test;
+
+import com.ricardojlrufino.eventbus.EventBus;
+import com.ricardojlrufino.eventbus.dispatcher.DirectEventDispatcher;
+
+import junit.eventbus.UIEvents.EventBoardChange;
+
+public class WeakHolderTest {
+
+  static final List<String> received = new ArrayList<>();
+
+  static class BoardView {
+
+    void onBoardChange( EventBoardChange event ) {
+      received.add(event.getBoard());
+    }
+  }
+
+  /**
+   * The handlers of a collected holder are removed without unregisterHandlers.
+   */
+  @Test
+  public void testCollectedHolderIsPurged() throws InterruptedException {
+
+    EventBus.get().setDefaultDispatcher(new DirectEventDispatcher());
+
+    BoardView view = new BoardView();
+    EventBus.registerWeak(view, UIEvents.BOARD_CHANGE, BoardView::onBoardChange);
+
+    EventBus.notify(new EventBoardChange("board 1"));
+    assertEquals(1, received.size());
+
+    view = null;
+
+    long start = System.currentTimeMillis();
+    while (!EventBus.getHandlers(UIEvents.BOARD_CHANGE).isEmpty() && System.currentTimeMillis() - start < 10000) {
+      System.gc();
+      Thread.sleep(50);
+    }
+
+    assertTrue(EventBus.getHandlers(UIEvents.BOARD_CHANGE).isEmpty());
+
+    EventBus.notify(new EventBoardChange("board 2"));
+    assertEquals(1, received.size());
+
+    EventBus.shutdown(true, 1000 * 30);
+  }
+
+  @Test
+  public void testUnregisterWeakHolder() {
+
+    BoardView view = new BoardView();
+    EventBus.registerWeak(view, UIEvents.BOARD_CHANGE, BoardView::onBoardChange);
+    EventBus.registerWeak(view, UIEvents.BOARD_CHANGE, ( holder , event ) -> holder.onBoardChange(event));
+
+    assertEquals(2, EventBus.getHandlers(UIEvents.BOARD_CHANGE).size());
+
+    EventBus.unregisterHandlers(view);
+
+    assertTrue(EventBus.getHandlers(UIEvents.BOARD_CHANGE).isEmpty());
+
+    EventBus.shutdown(true, 1000 * 30);
+  }
+
+}
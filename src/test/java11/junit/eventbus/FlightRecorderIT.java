@@ -0,0 +1,82 @@
+package junit.eventbus;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+import org.junit.Test;
+
+import com.ricardojlrufino.eventbus.EventBus;
+import com.ricardojlrufino.eventbus.dispatcher.DirectEventDispatcher;
+
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+import junit.eventbus.UIEvents.EventBoardChange;
+import junit.eventbus.UIEvents.EventUserChange;
+
+/**
+ * Runs against the packaged multi-release JAR (failsafe, java11 profile): the Java 11 listener emits the events.
+ */
+public class FlightRecorderIT {
+
+  @Test
+  public void testRecordedEvents() throws Exception {
+
+    EventBus.get().setDefaultDispatcher(new DirectEventDispatcher());
+
+    EventBus.register(UIEvents.BOARD_CHANGE, event -> {});
+    EventBus.register(UIEvents.BOARD_CHANGE, event -> {
+      throw new IllegalStateException("fail");
+    });
+
+    assertTrue(EventBus.enableFlightRecorder());
+
+    Path file = Files.createTempFile("eventbus4j", ".jfr");
+    try (Recording recording = new Recording()) {
+      for (String name : new String[] { "Publish", "Enqueue", "Handler", "Ignored", "Error" }) {
+        recording.enable("eventbus4j." + name);
+      }
+      recording.start();
+
+      for (int i = 0; i < 10; i++) {
+        EventBus.notify(new EventBoardChange("board " + i));
+      }
+      EventBus.notify(new EventUserChange("no handler"));
+
+      recording.stop();
+      recording.dump(file);
+    }
+
+    List<RecordedEvent> events = RecordingFile.readAllEvents(file);
+    Files.delete(file);
+
+    Map<String, Integer> counts = new TreeMap<>();
+    for (RecordedEvent event : events) {
+      counts.merge(event.getEventType().getName(), 1, Integer::sum);
+
+      if (event.getEventType().getName().equals("eventbus4j.Ignored")) {
+        assertEquals(EventUserChange.class.getName(), event.getClass("eventType").getName());
+        assertEquals("No Handler", event.getString("reason"));
+      }
+      if (event.getEventType().getName().equals("eventbus4j.Error")) {
+        assertEquals(IllegalStateException.class.getName(), event.getClass("exception").getName());
+        assertEquals("fail", event.getString("message"));
+      }
+    }
+
+    assertEquals(Integer.valueOf(11), counts.get("eventbus4j.Publish"));
+    assertEquals(Integer.valueOf(20), counts.get("eventbus4j.Enqueue"));
+    assertEquals(Integer.valueOf(20), counts.get("eventbus4j.Handler"));
+    assertEquals(Integer.valueOf(1), counts.get("eventbus4j.Ignored"));
+    assertEquals(Integer.valueOf(10), counts.get("eventbus4j.Error"));
+
+    EventBus.shutdown(true, 1000*30);
+  }
+
+}